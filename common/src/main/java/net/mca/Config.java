@@ -91,6 +91,7 @@ public final class Config implements Serializable {
     public int guardSpawnRate = 6;
     public float taxesFactor = 1.5f;
     public int taxSeason = 168000;
+    public int villageJobsPerTick = 4;
     public int marriageChance = 5;
     public int adventurerAtInnChance = 5;
     public int childrenChance = 5;
@@ -122,10 +123,14 @@ public final class Config implements Serializable {
     //player interactions
     public boolean allowPlayerMarriage = true;
 
+    //family tree
+    public int familyTreeResidentPages = 32;
+
     //structure settings
     public int minBuildingSize = 32;
     public int maxBuildingSize = 8192;
     public int maxBuildingRadius = 320;
+    public int buildingProcessingBudget = 2;
     public int minPillarHeight = 2;
     public int maxTreeHeight = 8;
     public Map<String, Integer> maxTreeTicks = ImmutableMap.<String, Integer>builder()
@@ -136,6 +141,9 @@ public final class Config implements Serializable {
             "minecraft:dirt"
     );
 
+    //networking
+    public boolean batchNetworkMessages = false;
+
     //player customization
     public boolean launchIntoDestiny = true;
     public boolean allowDestinyCommandOnce = true;
@@ -3,8 +3,12 @@ package net.mca;
 import net.mca.cobalt.network.NetworkHandler;
 import net.mca.entity.VillagerEntityMCA;
 import net.mca.entity.VillagerLike;
+import net.mca.network.c2s.GetVillageRequest;
 import net.mca.network.c2s.PlayerDataRequest;
+import net.mca.server.world.data.Village;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
@@ -15,12 +19,56 @@ public class MCAClient {
 
     private static final DestinyManager destinyManager = new DestinyManager();
 
+    private static Village cachedVillage;
+    private static Identifier cachedVillageDimension;
+
+    private static final Map<Long, Object> registries = new HashMap<>();
+
     public static DestinyManager getDestinyManager() {
         return destinyManager;
     }
 
     public static void onLogin() {
         playerDataRequests.clear();
+        cachedVillage = null;
+        cachedVillageDimension = null;
+    }
+
+    /**
+     * @return the cached village, if it belongs to the given dimension
+     */
+    public static Optional<Village> getCachedVillage(Identifier dimension) {
+        return dimension.equals(cachedVillageDimension) ? Optional.ofNullable(cachedVillage) : Optional.empty();
+    }
+
+    public static void setCachedVillage(Identifier dimension, Village village) {
+        cachedVillage = village;
+        cachedVillageDimension = dimension;
+    }
+
+    /**
+     * Stores a registry received from the server under its content hash, does nothing if the registry has been left out.
+     */
+    public static void putRegistry(long hash, @Nullable Object registry) {
+        if (registry != null) {
+            registries.put(hash, registry);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T getRegistry(long hash) {
+        return (T)registries.get(hash);
+    }
+
+    /**
+     * Requests the nearest village, only receiving the changes since the last cached copy.
+     */
+    public static void requestVillage() {
+        if (cachedVillage == null) {
+            NetworkHandler.sendToServer(new GetVillageRequest(null, -1, -1));
+        } else {
+            NetworkHandler.sendToServer(new GetVillageRequest(cachedVillageDimension, cachedVillage.getId(), cachedVillage.getSyncedRevision()));
+        }
     }
 
     public static boolean useGeneticsRenderer(UUID uuid) {
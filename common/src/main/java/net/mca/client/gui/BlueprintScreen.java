@@ -2,10 +2,10 @@ package net.mca.client.gui;
 
 import com.mojang.blaze3d.systems.RenderSystem;
 import net.mca.MCA;
+import net.mca.MCAClient;
 import net.mca.client.gui.widget.RectangleWidget;
 import net.mca.client.gui.widget.TooltipButtonWidget;
 import net.mca.cobalt.network.NetworkHandler;
-import net.mca.network.c2s.GetVillageRequest;
 import net.mca.network.c2s.RenameVillageMessage;
 import net.mca.network.c2s.ReportBuildingMessage;
 import net.mca.network.c2s.SaveVillageMessage;
@@ -116,7 +116,7 @@ public class BlueprintScreen extends ExtendedScreen {
 
     @Override
     public void init() {
-        NetworkHandler.sendToServer(new GetVillageRequest());
+        MCAClient.requestVillage();
         setPage("waiting");
     }
 
@@ -158,13 +158,13 @@ public class BlueprintScreen extends ExtendedScreen {
                 by = height / 2;
                 addDrawableChild(new ButtonWidget(bx, by + 5, 96, 20, new TranslatableText("gui.blueprint.addBuilding"), (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.ADD));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
+                    MCAClient.requestVillage();
                     close();
                 }));
                 break;
             case "refresh":
                 NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.FULL_SCAN));
-                NetworkHandler.sendToServer(new GetVillageRequest());
+                MCAClient.requestVillage();
                 assert client != null;
                 assert client.player != null;
                 client.player.sendMessage(new TranslatableText("blueprint.refreshed"), true);
@@ -182,7 +182,7 @@ public class BlueprintScreen extends ExtendedScreen {
                 }
                 addDrawableChild(new TooltipButtonWidget(bx, by, 96, 20, text, (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.AUTO_SCAN));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
+                    MCAClient.requestVillage();
                     village.toggleAutoScan();
                     setPage(page);
                 }));
@@ -191,14 +191,14 @@ public class BlueprintScreen extends ExtendedScreen {
                 //restrict access
                 addDrawableChild(new TooltipButtonWidget(bx, by, 96, 20, new TranslatableText("gui.blueprint.restrictAccess"), (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.FORCE_TYPE, "blocked"));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
+                    MCAClient.requestVillage();
                 }));
                 by += 22;
 
                 //add room
                 addDrawableChild(new TooltipButtonWidget(bx, by, 96, 20, "gui.blueprint.addRoom", (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.ADD_ROOM));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
+                    MCAClient.requestVillage();
                 }));
                 by += 22 * 3;
 
@@ -215,14 +215,14 @@ public class BlueprintScreen extends ExtendedScreen {
                 by = height / 2 - 56 + 22 * 3;
                 addDrawableChild(new ButtonWidget(bx, by, 96, 20, new TranslatableText("gui.blueprint.addBuilding"), (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.ADD));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
+                    MCAClient.requestVillage();
                 }));
                 by += 22;
 
                 //remove building
                 addDrawableChild(new ButtonWidget(bx, by, 96, 20, new TranslatableText("gui.blueprint.removeBuilding"), (b) -> {
                     NetworkHandler.sendToServer(new ReportBuildingMessage(ReportBuildingMessage.Action.REMOVE));
-                    NetworkHandler.sendToServer(new GetVillageRequest());
+                    MCAClient.requestVillage();
                 }));
                 by += 22;
 
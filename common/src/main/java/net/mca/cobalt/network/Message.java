@@ -5,6 +5,11 @@ import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.*;
 
+/**
+ * Messages registered with an explicit decoder (see {@link NetworkHandler#registerMessage(Class, java.util.function.Function)})
+ * override {@link #encode(PacketByteBuf)} and write their fields directly to the buffer.
+ * Messages without a decoder fall back to Java serialization.
+ */
 public interface Message extends Serializable {
     static Message decode(PacketByteBuf b) {
         byte[] data = new byte[b.readableBytes()];
@@ -36,4 +41,4 @@ public interface Message extends Serializable {
     default void receive(ServerPlayerEntity player) {
         // N/A
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package net.mca.cobalt.network;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketByteBuf;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Several messages for the same receiver, packed into a single payload and handled in order.
+ * Each entry is framed as registry index, byte length and the entry's own encoding.
+ */
+public class MessageBundle implements Message {
+    @Serial
+    private static final long serialVersionUID = -2786913960466151302L;
+
+    /**
+     * Bundles never grow past this size to stay well below the custom payload limit.
+     */
+    static final int MAX_SIZE = 512 * 1024;
+
+    /**
+     * Upper bound of the framing written in front of each entry.
+     */
+    private static final int ENTRY_HEADER_SIZE = 5 + 4;
+
+    private transient final PacketByteBuf payload;
+    private transient final List<Message> messages;
+    private int size;
+
+    MessageBundle() {
+        this.payload = new PacketByteBuf(Unpooled.buffer());
+        this.messages = List.of();
+    }
+
+    public MessageBundle(PacketByteBuf b) {
+        this.payload = null;
+        this.size = b.readVarInt();
+        this.messages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Class<? extends Message> type = NetworkHandler.getMessageType(b.readVarInt());
+            PacketByteBuf entry = new PacketByteBuf(b.readSlice(b.readInt()));
+            messages.add(NetworkHandler.decode(type, entry));
+        }
+    }
+
+    /**
+     * @param encoded the message as written by its {@link Message#encode(PacketByteBuf)}
+     */
+    void add(int index, PacketByteBuf encoded) {
+        payload.writeVarInt(index);
+        payload.writeInt(encoded.readableBytes());
+        payload.writeBytes(encoded, encoded.readerIndex(), encoded.readableBytes());
+        size++;
+    }
+
+    /**
+     * @return whether an entry of the given encoded length can be added without exceeding {@link #MAX_SIZE}
+     */
+    boolean fits(int length) {
+        return payload.readableBytes() + ENTRY_HEADER_SIZE + length <= MAX_SIZE;
+    }
+
+    /**
+     * @return whether a message of the given encoded length fits into an empty bundle
+     */
+    static boolean fitsEmpty(int length) {
+        return ENTRY_HEADER_SIZE + length <= MAX_SIZE;
+    }
+
+    int size() {
+        return size;
+    }
+
+    List<Message> getMessages() {
+        return messages;
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeVarInt(size);
+        b.writeBytes(payload, payload.readerIndex(), payload.readableBytes());
+    }
+
+    @Override
+    public void receive() {
+        messages.forEach(Message::receive);
+    }
+}
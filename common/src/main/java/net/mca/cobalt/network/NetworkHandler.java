@@ -1,20 +1,159 @@
 package net.mca.cobalt.network;
 
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
+import java.util.*;
+import java.util.function.Function;
+
 public abstract class NetworkHandler {
     private static Impl INSTANCE;
 
+    private static final Map<Class<?>, Function<PacketByteBuf, ? extends Message>> DECODERS = new HashMap<>();
+
+    private static final List<Class<? extends Message>> MESSAGES = new ArrayList<>();
+    private static final Map<Class<?>, Integer> MESSAGE_INDICES = new HashMap<>();
+
+    private static final Map<ServerPlayerEntity, List<Message>> QUEUE = new LinkedHashMap<>();
+    private static boolean batching;
+
+    private static long batchedMessages;
+    private static long batchedPackets;
+
+    /**
+     * Registers a message using the Java serialization fallback.
+     */
     public static <T extends Message> void registerMessage(Class<T> msg) {
+        MESSAGE_INDICES.put(msg, MESSAGES.size());
+        MESSAGES.add(msg);
         INSTANCE.registerMessage(msg);
     }
 
+    /**
+     * Registers a message with an explicit binary codec.
+     * The message is written by its {@link Message#encode(PacketByteBuf)} override and read back by the given decoder.
+     */
+    public static <T extends Message> void registerMessage(Class<T> msg, Function<PacketByteBuf, T> decoder) {
+        DECODERS.put(msg, decoder);
+        registerMessage(msg);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Message> T decode(Class<T> msg, PacketByteBuf b) {
+        Function<PacketByteBuf, ? extends Message> decoder = DECODERS.get(msg);
+        if (decoder == null) {
+            return (T)Message.decode(b);
+        } else {
+            return (T)decoder.apply(b);
+        }
+    }
+
+    static Class<? extends Message> getMessageType(int index) {
+        return MESSAGES.get(index);
+    }
+
+    static int getMessageIndex(Class<?> msg) {
+        return MESSAGE_INDICES.get(msg);
+    }
+
+    /**
+     * @return the messages registered with an explicit binary codec, in registration order
+     */
+    static List<Class<? extends Message>> getCodecMessages() {
+        return MESSAGES.stream().filter(DECODERS::containsKey).toList();
+    }
+
+    /**
+     * When enabled, messages sent to players are queued and sent as one {@link MessageBundle} per player on {@link #flush()}.
+     */
+    public static void setBatching(boolean batching) {
+        NetworkHandler.batching = batching;
+    }
+
     public static void sendToServer(Message m) {
         INSTANCE.sendToServer(m);
     }
 
     public static void sendToPlayer(Message m, ServerPlayerEntity e) {
-        INSTANCE.sendToPlayer(m, e);
+        if (batching) {
+            QUEUE.computeIfAbsent(e, p -> new LinkedList<>()).add(m);
+        } else {
+            INSTANCE.sendToPlayer(m, e);
+        }
+    }
+
+    /**
+     * Sends all queued messages, to be called once at the end of each server tick.
+     */
+    public static void flush() {
+        if (QUEUE.isEmpty()) {
+            return;
+        }
+
+        int bundleIndex = MESSAGE_INDICES.get(MessageBundle.class);
+        for (Map.Entry<ServerPlayerEntity, List<Message>> entry : QUEUE.entrySet()) {
+            ServerPlayerEntity player = entry.getKey();
+            List<Message> messages = entry.getValue();
+            if (player.isDisconnected()) {
+                continue;
+            }
+
+            batchedMessages += messages.size();
+            if (messages.size() == 1) {
+                INSTANCE.sendToPlayer(messages.get(0), player);
+                batchedPackets++;
+                continue;
+            }
+
+            MessageBundle bundle = new MessageBundle();
+            for (Message m : messages) {
+                PacketByteBuf encoded = new PacketByteBuf(Unpooled.buffer());
+                m.encode(encoded);
+                int length = encoded.readableBytes();
+
+                //close the bundle before it would grow past its limit, keeping the order of messages
+                if (!bundle.fits(length) && bundle.size() > 0) {
+                    INSTANCE.sendToPlayer(bundle, player);
+                    batchedPackets++;
+                    bundle = new MessageBundle();
+                }
+
+                if (MessageBundle.fitsEmpty(length)) {
+                    bundle.add(MESSAGE_INDICES.get(m.getClass()), encoded);
+                } else {
+                    //too large to share a payload
+                    INSTANCE.sendToPlayer(m, player);
+                    batchedPackets++;
+                }
+            }
+            if (bundle.size() > 0) {
+                INSTANCE.sendToPlayer(bundle, player);
+                batchedPackets++;
+            }
+        }
+        QUEUE.clear();
+    }
+
+    /**
+     * Drops all queued messages, to be called when the server stops so no players are kept around.
+     */
+    public static void clear() {
+        QUEUE.clear();
+    }
+
+    /**
+     * Total number of messages which went through the batching queue.
+     */
+    public static long getBatchedMessages() {
+        return batchedMessages;
+    }
+
+    /**
+     * Total number of packets actually sent for batched messages.
+     */
+    public static long getBatchedPackets() {
+        return batchedPackets;
     }
 
     public abstract static class Impl {
@@ -37,12 +37,16 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.Difficulty;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
 
 public class GrimReaperEntity extends PathAwareEntity implements CTrackedEntity<GrimReaperEntity> {
     public static final CEnumParameter<ReaperAttackState> ATTACK_STAGE = CParameter.create("attackStage", ReaperAttackState.IDLE);
 
     public static final CDataManager<GrimReaperEntity> DATA = new CDataManager.Builder<>(GrimReaperEntity.class).addAll(ATTACK_STAGE).build();
 
+    @Nullable
+    private CDataManager.Store serverData;
+
     private final ServerBossBar bossInfo = (ServerBossBar)new ServerBossBar(getDisplayName(), BossBar.Color.PURPLE, BossBar.Style.PROGRESS).setDarkenSky(true);
 
     public GrimReaperEntity(EntityType<? extends GrimReaperEntity> type, World world) {
@@ -60,6 +64,14 @@ public class GrimReaperEntity extends PathAwareEntity implements CTrackedEntity<
         return DATA;
     }
 
+    @Override
+    public CDataManager.Store getServerData() {
+        if (serverData == null) {
+            serverData = DATA.createStore();
+        }
+        return serverData;
+    }
+
     public static DefaultAttributeContainer.Builder createAttributes() {
         return HostileEntity.createHostileAttributes()
                 .add(EntityAttributes.GENERIC_ATTACK_DAMAGE, 10.0D)
@@ -111,6 +111,9 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
 
     private static final CDataManager<VillagerEntityMCA> DATA = createTrackedData(VillagerEntityMCA.class).build();
 
+    @Nullable
+    private CDataManager.Store serverData;
+
     private PlayerModel playerModel;
 
     private int despawnDelay;
@@ -199,6 +202,14 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
         return DATA;
     }
 
+    @Override
+    public CDataManager.Store getServerData() {
+        if (serverData == null) {
+            serverData = DATA.createStore();
+        }
+        return serverData;
+    }
+
     @Override
     protected EntityNavigation createNavigation(World world) {
         return new VillagerNavigation(this, world);
@@ -1263,7 +1274,10 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
 
     @Override
     public void onTrackedDataSet(TrackedData<?> par) {
-        if (getTypeDataManager().isParam(AGE_STATE, par) || getTypeDataManager().isParam(Genetics.SIZE.getParam(), par)) {
+        if (getTypeDataManager().isParam(Genetics.GENES, par)) {
+            genetics.onTrackedDataSet();
+        }
+        if (getTypeDataManager().isParam(AGE_STATE, par) || getTypeDataManager().isParam(Genetics.GENES, par)) {
             calculateDimensions();
         }
         if (getTypeDataManager().isParam(CUSTOM_SKIN, par)) {
@@ -1355,6 +1369,7 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
     public void readCustomDataFromNbt(NbtCompound nbt) {
         super.readCustomDataFromNbt(nbt);
         getTypeDataManager().load(this, nbt);
+        mcaBrain.readFromNbt(nbt);
         relations.readFromNbt(nbt);
         longTermMemory.readFromNbt(nbt);
 
@@ -1378,6 +1393,7 @@ public class VillagerEntityMCA extends VillagerEntity implements VillagerLike<Vi
     public final void writeCustomDataToNbt(NbtCompound nbt) {
         super.writeCustomDataToNbt(nbt);
         getTypeDataManager().save(this, nbt);
+        mcaBrain.writeToNbt(nbt);
         relations.writeToNbt(nbt);
         longTermMemory.writeToNbt(nbt);
         nbt.putInt("DespawnDelay", this.despawnDelay);
@@ -392,12 +392,14 @@ public interface VillagerLike<E extends Entity & VillagerLike<E>> extends CTrack
     default NbtCompound toNbtForConversion(EntityType<?> convertingTo) {
         NbtCompound output = new NbtCompound();
         this.getTypeDataManager().save((E)asEntity(), output);
+        getVillagerBrain().writeToNbt(output);
         return output;
     }
 
     @SuppressWarnings({"unchecked", "RedundantSuppression"})
     default void readNbtForConversion(EntityType<?> convertingFrom, NbtCompound input) {
         this.getTypeDataManager().load((E)asEntity(), input);
+        getVillagerBrain().readFromNbt(input);
     }
 
     default void copyVillagerAttributesFrom(VillagerLike<?> other) {
@@ -39,6 +39,9 @@ public class ZombieVillagerEntityMCA extends ZombieVillagerEntity implements Vil
 
     private static final CDataManager<ZombieVillagerEntityMCA> DATA = VillagerEntityMCA.createTrackedData(ZombieVillagerEntityMCA.class).build();
 
+    @Nullable
+    private CDataManager.Store serverData;
+
     private final VillagerBrain<ZombieVillagerEntityMCA> mcaBrain = new VillagerBrain<>(this);
 
     private final Genetics genetics = new Genetics(this);
@@ -68,6 +71,14 @@ public class ZombieVillagerEntityMCA extends ZombieVillagerEntity implements Vil
         return DATA;
     }
 
+    @Override
+    public CDataManager.Store getServerData() {
+        if (serverData == null) {
+            serverData = DATA.createStore();
+        }
+        return serverData;
+    }
+
     @Override
     public Genetics getGenetics() {
         return genetics;
@@ -264,6 +275,7 @@ public class ZombieVillagerEntityMCA extends ZombieVillagerEntity implements Vil
     public void readCustomDataFromNbt(NbtCompound nbt) {
         super.readCustomDataFromNbt(nbt);
         getTypeDataManager().load(this, nbt);
+        mcaBrain.readFromNbt(nbt);
         relations.readFromNbt(nbt);
 
         updateSpeed();
@@ -278,13 +290,17 @@ public class ZombieVillagerEntityMCA extends ZombieVillagerEntity implements Vil
     public final void writeCustomDataToNbt(NbtCompound nbt) {
         super.writeCustomDataToNbt(nbt);
         getTypeDataManager().save(this, nbt);
+        mcaBrain.writeToNbt(nbt);
         relations.writeToNbt(nbt);
         InventoryUtils.saveToNBT(inventory, nbt);
     }
 
     @Override
     public void onTrackedDataSet(TrackedData<?> par) {
-        if (getTypeDataManager().isParam(AGE_STATE, par) || getTypeDataManager().isParam(Genetics.SIZE.getParam(), par)) {
+        if (getTypeDataManager().isParam(Genetics.GENES, par)) {
+            genetics.onTrackedDataSet();
+        }
+        if (getTypeDataManager().isParam(AGE_STATE, par) || getTypeDataManager().isParam(Genetics.GENES, par)) {
             calculateDimensions();
         }
 
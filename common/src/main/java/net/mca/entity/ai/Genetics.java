@@ -4,8 +4,8 @@ import net.mca.Config;
 import net.mca.entity.VillagerLike;
 import net.mca.entity.ai.relationship.Gender;
 import net.mca.util.network.datasync.CDataManager;
-import net.mca.util.network.datasync.CDataParameter;
 import net.mca.util.network.datasync.CEnumParameter;
+import net.mca.util.network.datasync.CFloatArrayParameter;
 import net.mca.util.network.datasync.CParameter;
 import net.minecraft.entity.Entity;
 import net.minecraft.util.math.MathHelper;
@@ -16,7 +16,7 @@ import java.util.*;
  * Villagerized Genetic Diversity.
  */
 public class Genetics implements Iterable<Genetics.Gene> {
-    private static final Set<GeneType> GENOMES = new HashSet<>();
+    private static final List<GeneType> GENOMES = new ArrayList<>();
 
     public static final GeneType SIZE = new GeneType("gene_size");
     public static final GeneType WIDTH = new GeneType("gene_width");
@@ -29,22 +29,46 @@ public class Genetics implements Iterable<Genetics.Gene> {
     public static final GeneType FACE = new GeneType("gene_face");
     public static final GeneType VOICE = new GeneType("gene_voice");
 
+    /**
+     * All genes, indexed by {@link GeneType#ordinal()} and synced as one entry.
+     */
+    public static final CFloatArrayParameter GENES = new CFloatArrayParameter(GENOMES.stream().map(GeneType::key).toArray(String[]::new), 0.5f);
+
     private static final CEnumParameter<Gender> GENDER = CParameter.create("gender", Gender.UNASSIGNED);
 
     public static <E extends Entity> CDataManager.Builder<E> createTrackedData(CDataManager.Builder<E> builder) {
-        GENOMES.forEach(g -> builder.addAll(g.getParam()));
-        return builder.addAll(GENDER);
+        return builder.addAll(GENES, GENDER);
     }
 
     private Random random;
 
-    private final Map<GeneType, Gene> genes = new HashMap<>();
+    /**
+     * Local copy of the tracked genes, refreshed by {@link #onTrackedDataSet()}.
+     */
+    private final float[] genes = GENES.getDefaultValue();
+
+    private final Gene[] genomes = new Gene[GENOMES.size()];
 
     private final VillagerLike<?> entity;
 
     public Genetics(VillagerLike<?> entity) {
         this.entity = entity;
         random = new Random(entity.asEntity().world.random.nextLong());
+        for (GeneType type : GENOMES) {
+            genomes[type.ordinal()] = new Gene(type);
+        }
+    }
+
+    /**
+     * Called by the entity whenever {@link #GENES} changed, either locally or by a sync.
+     */
+    public void onTrackedDataSet() {
+        float[] values = entity.getTrackedValue(GENES);
+        System.arraycopy(values, 0, genes, 0, genes.length);
+    }
+
+    private void sync() {
+        entity.setTrackedValue(GENES, genes.clone());
     }
 
     public float getVerticalScaleFactor() {
@@ -69,30 +93,31 @@ public class Genetics implements Iterable<Genetics.Gene> {
 
     @Override
     public Iterator<Gene> iterator() {
-        return genes.values().iterator();
+        return Arrays.asList(genomes).iterator();
     }
 
     public void setGene(GeneType type, float value) {
-        getGenome(type).set(value);
+        genes[type.ordinal()] = value;
+        sync();
     }
 
     public float getGene(GeneType type) {
-        return getGenome(type).get();
+        return genes[type.ordinal()];
     }
 
     public Gene getGenome(GeneType type) {
-        return genes.computeIfAbsent(type, Gene::new);
+        return genomes[type.ordinal()];
     }
 
     //initializes the genes with random numbers
     public void randomize() {
-        for (GeneType type : GENOMES) {
-            getGenome(type).randomize();
+        for (int i = 0; i < genes.length; i++) {
+            genes[i] = random.nextFloat();
         }
 
         // size is more centered
-        setGene(SIZE, centeredRandom());
-        setGene(WIDTH, centeredRandom());
+        genes[SIZE.ordinal()] = centeredRandom();
+        genes[WIDTH.ordinal()] = centeredRandom();
 
         // temperature
         float temp = entity.asEntity().world.getBiome(entity.asEntity().getBlockPos()).value().getTemperature();
@@ -102,11 +127,13 @@ public class Genetics implements Iterable<Genetics.Gene> {
             temp = random.nextFloat() * 2 - 0.5F;
         }
 
-        setGene(MELANIN, temperatureBaseRandom(temp));
-        setGene(HEMOGLOBIN, temperatureBaseRandom(temp));
+        genes[MELANIN.ordinal()] = temperatureBaseRandom(temp);
+        genes[HEMOGLOBIN.ordinal()] = temperatureBaseRandom(temp);
+
+        genes[EUMELANIN.ordinal()] = random.nextFloat();
+        genes[PHEOMELANIN.ordinal()] = random.nextFloat();
 
-        setGene(EUMELANIN, random.nextFloat());
-        setGene(PHEOMELANIN, random.nextFloat());
+        sync();
     }
 
     /**
@@ -121,9 +148,16 @@ public class Genetics implements Iterable<Genetics.Gene> {
     }
 
     public void combine(Genetics mother, Genetics father) {
-        for (GeneType type : GENOMES) {
-            getGenome(type).mutate(mother, father);
+        for (int i = 0; i < genes.length; i++) {
+            float m = mother.genes[i];
+            float f = father.genes[i];
+            float interpolation = random.nextFloat();
+            float mutation = (random.nextFloat() - 0.5f) * 0.2f;
+            float g = m * interpolation + f * (1.0f - interpolation) + mutation;
+
+            genes[i] = (float) Math.min(1.0, Math.max(0.0, g));
         }
+        sync();
     }
 
     public void combine(Optional<Genetics> mother, Optional<Genetics> father) {
@@ -152,35 +186,25 @@ public class Genetics implements Iterable<Genetics.Gene> {
         }
 
         public float get() {
-            return entity.getTrackedValue(type.parameter);
+            return getGene(type);
         }
 
         public void set(float value) {
-            entity.setTrackedValue(type.parameter, value);
+            setGene(type, value);
         }
 
         public void randomize() {
             set(random.nextFloat());
         }
-
-        public void mutate(Genetics mother, Genetics father) {
-            float m = mother.getGene(type);
-            float f = father.getGene(type);
-            float interpolation = random.nextFloat();
-            float mutation = (random.nextFloat() - 0.5f) * 0.2f;
-            float g = m * interpolation + f * (1.0f - interpolation) + mutation;
-
-            set((float) Math.min(1.0, Math.max(0.0, g)));
-        }
     }
 
     public static class GeneType implements Comparable<GeneType> {
         private final String key;
-        private final CDataParameter<Float> parameter;
+        private final int ordinal;
 
         GeneType(String key) {
             this.key = key;
-            parameter = CParameter.create(key, 0.5f);
+            ordinal = GENOMES.size();
             GENOMES.add(this);
         }
 
@@ -188,12 +212,15 @@ public class Genetics implements Iterable<Genetics.Gene> {
             return key;
         }
 
-        public String getTranslationKey() {
-            return key().replace("_", ".");
+        /**
+         * The index into the gene array, given by declaration order.
+         */
+        public int ordinal() {
+            return ordinal;
         }
 
-        public CDataParameter<Float> getParam() {
-            return parameter;
+        public String getTranslationKey() {
+            return key().replace("_", ".");
         }
 
         @Override
@@ -1,5 +1,6 @@
 package net.mca.entity.ai;
 
+import net.mca.Config;
 import net.mca.entity.VillagerLike;
 import net.mca.entity.ai.brain.VillagerBrain;
 import net.minecraft.entity.mob.MobEntity;
@@ -14,8 +15,13 @@ public class Memories {
 
     private final UUID playerUUID;
 
+    /**
+     * Fatigue as of {@link #fatigueTime}, it decays by one every {@link Config#interactionFatigueCooldown} ticks.
+     */
     private int interactionFatigue;
 
+    private long fatigueTime;
+
     private DialogueType dialogueType;
 
     private final VillagerBrain<?> brain;
@@ -47,17 +53,18 @@ public class Memories {
     }
 
     public int getInteractionFatigue() {
-        return interactionFatigue;
+        long decay = (brain.getTime() - fatigueTime) / Math.max(1, Config.getInstance().interactionFatigueCooldown);
+        return (int)Math.max(0, interactionFatigue - Math.max(0, decay));
     }
 
     public void setInteractionFatigue(int value) {
         this.interactionFatigue = value;
+        this.fatigueTime = brain.getTime();
         brain.updateMemories(this);
     }
 
     public void modInteractionFatigue(int value) {
-        this.interactionFatigue += value;
-        brain.updateMemories(this);
+        setInteractionFatigue(getInteractionFatigue() + value);
     }
 
     public DialogueType getDialogueType() {
@@ -84,6 +91,7 @@ public class Memories {
         nbt.putUuid("playerUUID", playerUUID);
         nbt.putInt("hearts", hearts);
         nbt.putInt("interactionFatigue", interactionFatigue);
+        nbt.putLong("fatigueTime", fatigueTime);
         nbt.putInt("dialogueType", dialogueType.ordinal());
         nbt.putLong("lastSeen", lastSeen);
 
@@ -99,6 +107,8 @@ public class Memories {
 
         memories.hearts = tag.getInt("hearts");
         memories.interactionFatigue = tag.getInt("interactionFatigue");
+        // memories from before fatigue was time based start decaying now
+        memories.fatigueTime = tag.contains("fatigueTime") ? tag.getLong("fatigueTime") : villager.world.getTime();
         memories.dialogueType = DialogueType.byId(tag.getInt("dialogueType"));
         memories.lastSeen = tag.getLong("lastSeen");
 
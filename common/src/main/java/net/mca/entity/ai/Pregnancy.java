@@ -10,6 +10,7 @@ import net.mca.util.WorldUtils;
 import net.mca.util.network.datasync.CDataManager;
 import net.mca.util.network.datasync.CDataParameter;
 import net.mca.util.network.datasync.CParameter;
+import net.mca.util.network.datasync.SyncPolicy;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.SpawnReason;
 import net.minecraft.entity.player.PlayerEntity;
@@ -29,7 +30,7 @@ public class Pregnancy {
     private static final CDataParameter<Integer> BABY_AGE = CParameter.create("babyAge", 0);
 
     public static <E extends Entity> CDataManager.Builder<E> createTrackedData(CDataManager.Builder<E> builder) {
-        return builder.addAll(HAS_BABY, IS_BABY_MALE, BABY_AGE);
+        return builder.addAll(SyncPolicy.SERVER, HAS_BABY, IS_BABY_MALE, BABY_AGE);
     }
 
     private final VillagerEntityMCA mother;
@@ -80,7 +80,7 @@ public class Relationship<T extends MobEntity & VillagerLike<T>> implements Enti
 
     public void onDeath(DamageSource cause) {
         boolean beRemembered = getFamilyEntry().willBeRemembered();
-        boolean beLoved = entity.getVillagerBrain().getMemories().values().stream().anyMatch(m -> m.getHearts() > Config.getInstance().heartsRequiredToAutoSpawnGravestone);
+        boolean beLoved = entity.getVillagerBrain().getMaxHearts() > Config.getInstance().heartsRequiredToAutoSpawnGravestone;
 
         if (beRemembered || beLoved || !entity.isHostile()) {
             getFamilyEntry().setDeceased(true);
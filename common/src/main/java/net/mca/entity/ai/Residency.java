@@ -8,6 +8,7 @@ import net.mca.server.world.data.VillageManager;
 import net.mca.util.network.datasync.CDataManager;
 import net.mca.util.network.datasync.CDataParameter;
 import net.mca.util.network.datasync.CParameter;
+import net.mca.util.network.datasync.SyncPolicy;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.ai.brain.MemoryModuleType;
 import net.minecraft.entity.player.PlayerEntity;
@@ -30,7 +31,7 @@ public class Residency {
     private static final CDataParameter<BlockPos> HANGOUT = CParameter.create("hangoutPos", BlockPos.ORIGIN);
 
     public static <E extends Entity> CDataManager.Builder<E> createTrackedData(CDataManager.Builder<E> builder) {
-        return builder.addAll(BUILDING, HANGOUT);
+        return builder.addAll(SyncPolicy.SERVER, BUILDING, HANGOUT);
     }
 
     private final VillagerEntityMCA entity;
@@ -85,7 +86,7 @@ public class Residency {
         village.ifPresent(v -> {
             Optional<Building> building = v.getBuilding(entity.getTrackedValue(BUILDING));
             if (building.isPresent()) {
-                building.get().getResidents().remove(entity.getUuid());
+                building.get().removeResident(entity.getUuid());
                 manager.markDirty();
             }
             v.cleanReputation();
@@ -182,7 +183,7 @@ public class Residency {
         //fetch all near POIs
         Stream<BlockPos> stream = ((ServerWorld)entity.world).getPointOfInterestStorage().getPositions(
                 PointOfInterestType.ALWAYS_TRUE,
-                (p) -> !manager.cache.contains(p),
+                (p) -> !manager.isReported(p),
                 entity.getBlockPos(),
                 48,
                 PointOfInterestStorage.OccupationStatus.ANY);
@@ -196,8 +197,7 @@ public class Residency {
 
     private boolean seekNewHome(Village village) {
         //choose the first building available, shuffled
-        List<Building> buildings = village.getBuildings().values().stream()
-                .filter(Building::hasFreeSpace).toList();
+        List<Building> buildings = village.getBuildingsWithFreeSpace().toList();
 
         if (!buildings.isEmpty()) {
             Building b = buildings.get(entity.getRandom().nextInt(buildings.size()));
@@ -1,16 +1,18 @@
 package net.mca.entity.ai.brain;
 
-import net.mca.Config;
 import net.mca.advancement.criterion.CriterionMCA;
+import net.mca.cobalt.network.NetworkHandler;
 import net.mca.entity.Status;
 import net.mca.entity.VillagerEntityMCA;
 import net.mca.entity.VillagerLike;
 import net.mca.entity.ai.*;
 import net.mca.entity.ai.relationship.Personality;
+import net.mca.network.s2c.VillagerMemoriesMessage;
 import net.mca.util.network.datasync.CDataManager;
 import net.mca.util.network.datasync.CDataParameter;
 import net.mca.util.network.datasync.CEnumParameter;
 import net.mca.util.network.datasync.CParameter;
+import net.mca.util.network.datasync.SyncPolicy;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.ai.brain.Activity;
 import net.minecraft.entity.mob.MobEntity;
@@ -20,16 +22,12 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * Handles memory and complex bodily functions. Such as walking, and not being a nitwit.
  */
 public class VillagerBrain<E extends MobEntity & VillagerLike<E>> {
-    private static final CDataParameter<NbtCompound> MEMORIES = CParameter.create("memories", new NbtCompound());
     private static final CEnumParameter<Personality> PERSONALITY = CParameter.create("personality", Personality.UNASSIGNED);
     private static final CDataParameter<Integer> MOOD = CParameter.create("mood", 0);
     private static final CEnumParameter<MoveState> MOVE_STATE = CParameter.create("moveState", MoveState.MOVE);
@@ -39,11 +37,28 @@ public class VillagerBrain<E extends MobEntity & VillagerLike<E>> {
     private static final CDataParameter<Boolean> WEAR_ARMOR = CParameter.create("wearArmor", false);
 
     public static <E extends Entity> CDataManager.Builder<E> createTrackedData(CDataManager.Builder<E> builder) {
-        return builder.addAll(MEMORIES, PERSONALITY, MOOD, MOVE_STATE, ACTIVE_CHORE, CHORE_ASSIGNING_PLAYER, PANICKING, WEAR_ARMOR);
+        return builder.addAll(PERSONALITY, MOOD, MOVE_STATE, ACTIVE_CHORE, PANICKING, WEAR_ARMOR)
+                .addAll(SyncPolicy.SERVER, CHORE_ASSIGNING_PLAYER);
     }
 
     private final E entity;
 
+    /**
+     * Per player memories. Those are not tracked, on the client only the local player's entry is present, see {@link #syncMemories(ServerPlayerEntity)}.
+     */
+    private final Map<UUID, Memories> memories = new HashMap<>();
+
+    /**
+     * Players whose memories changed since the last sync.
+     */
+    private final Set<UUID> dirtyMemories = new HashSet<>();
+
+    /**
+     * Cached highest hearts across all memories, null if a memory changed since.
+     */
+    @Nullable
+    private Integer maxHearts;
+
     public VillagerBrain(E entity) {
         this.entity = entity;
     }
@@ -70,21 +85,24 @@ public class VillagerBrain<E extends MobEntity & VillagerLike<E>> {
             updateMoveState();
         }
 
-        // decrease interaction fatigue
-        if (entity.age % Math.max(1, Config.getInstance().interactionFatigueCooldown) == 0) {
-            NbtCompound nbt = entity.getTrackedValue(MEMORIES);
-            if (nbt != null) {
-                for (String uuid : nbt.getKeys()) {
-                    Memories memories = Memories.fromCNBT(entity, nbt.getCompound(uuid));
-                    int fatigue = memories.getInteractionFatigue();
-                    if (fatigue > 0) {
-                        memories.setInteractionFatigue(fatigue - 1);
-                    }
+        // only the player currently interacting needs to see their memories change
+        if (!dirtyMemories.isEmpty()) {
+            entity.getInteractions().getInteractingPlayer().ifPresent(player -> {
+                if (dirtyMemories.contains(player.getUuid()) && player instanceof ServerPlayerEntity serverPlayer) {
+                    syncMemories(serverPlayer);
                 }
-            }
+            });
+            dirtyMemories.clear();
         }
     }
 
+    /**
+     * The world time, used by memories to derive decaying values.
+     */
+    public long getTime() {
+        return entity.world.getTime();
+    }
+
     public Chore getCurrentJob() {
         return entity.getTrackedValue(ACTIVE_CHORE);
     }
@@ -126,34 +144,72 @@ public class VillagerBrain<E extends MobEntity & VillagerLike<E>> {
         entity.setTrackedValue(PERSONALITY, p);
     }
 
+    /**
+     * Marks the memories as changed, to be sent to the player if they are currently interacting.
+     */
     public void updateMemories(Memories memories) {
-        NbtCompound nbt = entity.getTrackedValue(MEMORIES);
-
-        nbt = nbt == null ? new NbtCompound() : nbt.copy();
-        nbt.put(memories.getPlayerUUID().toString(), memories.toCNBT());
-        entity.setTrackedValue(MEMORIES, nbt);
+        this.memories.put(memories.getPlayerUUID(), memories);
+        maxHearts = null;
+        if (!entity.world.isClient) {
+            dirtyMemories.add(memories.getPlayerUUID());
+        }
     }
 
     public Map<UUID, Memories> getMemories() {
-        NbtCompound nbt = entity.getTrackedValue(MEMORIES);
-        Map<UUID, Memories> memories = new HashMap<>();
-        for (String uuid : nbt.getKeys()) {
-            memories.put(UUID.fromString(uuid), Memories.fromCNBT(entity, nbt.getCompound(uuid)));
+        return Collections.unmodifiableMap(memories);
+    }
+
+    /**
+     * The highest hearts any player has with this villager, or 0 if it never met anyone.
+     */
+    public int getMaxHearts() {
+        if (maxHearts == null) {
+            maxHearts = memories.values().stream().mapToInt(Memories::getHearts).max().orElse(0);
         }
-        return memories;
+        return maxHearts;
     }
 
     public Memories getMemoriesForPlayer(PlayerEntity player) {
-        NbtCompound nbt = entity.getTrackedValue(MEMORIES);
-        nbt = nbt == null ? new NbtCompound() : nbt;
-        NbtCompound compoundTag = nbt.getCompound(player.getUuid().toString());
-        Memories returnMemories = Memories.fromCNBT(entity, compoundTag);
-        if (returnMemories == null) {
-            returnMemories = new Memories(this, player.world.getTimeOfDay(), player.getUuid());
-            nbt.put(player.getUuid().toString(), returnMemories.toCNBT());
-            entity.setTrackedValue(MEMORIES, nbt);
+        return memories.computeIfAbsent(player.getUuid(), uuid -> {
+            maxHearts = null;
+            return new Memories(this, player.world.getTimeOfDay(), uuid);
+        });
+    }
+
+    /**
+     * Sends the memories of this player, and only this player, to their client.
+     */
+    public void syncMemories(ServerPlayerEntity player) {
+        NetworkHandler.sendToPlayer(new VillagerMemoriesMessage(entity.getId(), getMemoriesForPlayer(player).toCNBT()), player);
+    }
+
+    /**
+     * Replaces the memories of the received player, used client side.
+     */
+    public void setMemories(NbtCompound nbt) {
+        Memories m = Memories.fromCNBT(entity, nbt);
+        if (m != null) {
+            memories.put(m.getPlayerUUID(), m);
+            maxHearts = null;
         }
-        return returnMemories;
+    }
+
+    public void readFromNbt(NbtCompound nbt) {
+        memories.clear();
+        maxHearts = null;
+        NbtCompound compound = nbt.getCompound("memories");
+        for (String uuid : compound.getKeys()) {
+            Memories m = Memories.fromCNBT(entity, compound.getCompound(uuid));
+            if (m != null) {
+                memories.put(m.getPlayerUUID(), m);
+            }
+        }
+    }
+
+    public void writeToNbt(NbtCompound nbt) {
+        NbtCompound compound = new NbtCompound();
+        memories.forEach((uuid, m) -> compound.put(uuid.toString(), m.toCNBT()));
+        nbt.put("memories", compound);
     }
 
     public Personality getPersonality() {
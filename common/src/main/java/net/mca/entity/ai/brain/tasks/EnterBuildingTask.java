@@ -32,8 +32,7 @@ public class EnterBuildingTask extends Task<VillagerEntityMCA> {
 
     protected Optional<Building> getNearestBuilding(VillagerEntityMCA villager) {
         return villager.getResidency().getHomeVillage()
-                .flatMap(buildings -> buildings.getBuildings().values().stream()
-                        .filter(a -> a.getType().equals(getBuilding(villager)))
+                .flatMap(buildings -> buildings.getBuildingsOfType(getBuilding(villager))
                         .min(Comparator.comparingInt(a -> a.getCenter().getManhattanDistance(villager.getBlockPos()))));
     }
 
@@ -1,82 +1,265 @@
 package net.mca.entity.ai.relationship.family;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.mca.Config;
+import net.mca.MCA;
+import net.mca.entity.VillagerLike;
 import net.mca.entity.ai.relationship.EntityRelationship;
 import net.mca.entity.ai.relationship.Gender;
 import net.mca.entity.ai.relationship.RelationshipState;
+import net.mca.server.world.data.AsyncPersistentState;
+import net.mca.server.world.data.SaveCoordinator;
 import net.mca.util.NbtHelper;
 import net.mca.util.WorldUtils;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Util;
-import net.minecraft.world.PersistentState;
+import net.minecraft.util.WorldSavePath;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
-public class FamilyTree extends PersistentState {
+/**
+ * All family tree nodes, bucketed by their UUID into pages which are stored in their own files.
+ * Pages are loaded on first access and written back when changed. Unchanged pages which have not been used recently are
+ * dropped on save, except those of loaded villagers and players.
+ * Each page also stores the names of its nodes in a small separate file, from which the name index is built on load.
+ */
+public class FamilyTree extends AsyncPersistentState {
     private static final String DATA_ID = "MCA-FamilyTree";
+    private static final int DEFAULT_PAGE_COUNT = 256;
 
-    private final Map<UUID, FamilyTreeNode> entries;
+    private final MinecraftServer server;
+    private final File directory;
+    private final int pageCount;
+
+    /**
+     * The loaded pages, least recently used first.
+     */
+    private final Int2ObjectLinkedOpenHashMap<Page> pages = new Int2ObjectLinkedOpenHashMap<>();
+
+    private final NameIndex names = new NameIndex();
 
     public static FamilyTree get(ServerWorld world) {
-        return WorldUtils.loadData(world.getServer().getOverworld(), FamilyTree::new, FamilyTree::new, DATA_ID);
+        ServerWorld overworld = world.getServer().getOverworld();
+        return WorldUtils.loadData(overworld, nbt -> new FamilyTree(overworld, nbt), FamilyTree::new, DATA_ID);
     }
 
     FamilyTree(ServerWorld world) {
-        entries = new HashMap<>();
+        this(world, DEFAULT_PAGE_COUNT);
+        markDirty();
+    }
+
+    private FamilyTree(ServerWorld world, int pageCount) {
+        this.server = world.getServer();
+        this.directory = server.getSavePath(WorldSavePath.ROOT).resolve("data").resolve("mca_family_tree").normalize().toFile();
+        this.pageCount = pageCount;
     }
 
-    FamilyTree(NbtCompound nbt) {
-        entries = NbtHelper.toMap(nbt, UUID::fromString, (id, element) -> new FamilyTreeNode(this, id, (NbtCompound)element));
+    FamilyTree(ServerWorld world, NbtCompound nbt) {
+        this(world, nbt.contains("pageCount") ? nbt.getInt("pageCount") : DEFAULT_PAGE_COUNT);
+
+        if (!nbt.contains("pageCount")) {
+            //convert from the single file format, every node is written to its page on the next save
+            Map<UUID, FamilyTreeNode> entries = NbtHelper.toMap(nbt, UUID::fromString, (id, element) -> new FamilyTreeNode(this, id, (NbtCompound)element));
+
+            // Fixing the shift in relationships introduces by the promised update
+            UUID uuid = UUID.fromString("12341234-1234-1234-1234-123412341234");
+            if (!entries.containsKey(uuid)) {
+                entries.put(uuid, createEntry(uuid, "debug", Gender.NEUTRAL, false));
+
+                entries.values().forEach(e -> {
+                    FamilyTreeNode partner = entries.get(e.partner());
+                    boolean partnerIsPlayer = partner != null && partner.isPlayer();
+                    if (e.getRelationshipState() == RelationshipState.ENGAGED && partnerIsPlayer == e.isPlayer()) {
+                        //this is a villager-villager or player-player relationship. They do not have engagement
+                        e.setRelationshipState(RelationshipState.MARRIED_TO_VILLAGER);
+                    }
+                    if (e.getRelationshipState() == RelationshipState.MARRIED_TO_VILLAGER && partnerIsPlayer) {
+                        //The partner is not a villager
+                        e.setRelationshipState(RelationshipState.MARRIED_TO_PLAYER);
+                    }
+                    if (e.getRelationshipState() == RelationshipState.MARRIED_TO_PLAYER && !partnerIsPlayer) {
+                        //The partner is not a player
+                        e.setRelationshipState(RelationshipState.WIDOW);
+                    }
+                });
+            }
 
-        // Fixing the shift in relationships introduces by the promised update
-        UUID uuid = UUID.fromString("12341234-1234-1234-1234-123412341234");
-        if (!entries.containsKey(uuid)) {
-            entries.put(uuid, createEntry(uuid, "debug", Gender.NEUTRAL, false));
+            entries.forEach((id, node) -> {
+                Page page = getPage(id);
+                page.nodes.put(id, node);
+                page.dirty = true;
+                names.add(id, node.getName());
+            });
             markDirty();
+        } else {
+            for (int i = 0; i < pageCount; i++) {
+                loadNames(i);
+            }
+        }
+    }
 
-            entries.values().forEach(e -> {
-                FamilyTreeNode partner = entries.get(e.partner());
-                boolean partnerIsPlayer = partner != null && partner.isPlayer();
-                if (e.getRelationshipState() == RelationshipState.ENGAGED && partnerIsPlayer == e.isPlayer()) {
-                    //this is a villager-villager or player-player relationship. They do not have engagement
-                    e.setRelationshipState(RelationshipState.MARRIED_TO_VILLAGER);
-                }
-                if (e.getRelationshipState() == RelationshipState.MARRIED_TO_VILLAGER && partnerIsPlayer) {
-                    //The partner is not a villager
-                    e.setRelationshipState(RelationshipState.MARRIED_TO_PLAYER);
+    /**
+     * Adds the nodes of a page to the name index, using the name list stored next to the page.
+     * Pages saved without one are loaded once and marked to write it.
+     */
+    private void loadNames(int index) {
+        try {
+            NbtCompound nbt = SaveCoordinator.read(getNamesFile(index));
+            if (nbt != null) {
+                long[] ids = nbt.getLongArray("ids");
+                NbtList list = nbt.getList("names", NbtElement.STRING_TYPE);
+                for (int i = 0; i < list.size() && i * 2 + 1 < ids.length; i++) {
+                    names.add(new UUID(ids[i * 2], ids[i * 2 + 1]), list.getString(i));
                 }
-                if (e.getRelationshipState() == RelationshipState.MARRIED_TO_PLAYER && !partnerIsPlayer) {
-                    //The partner is not a player
-                    e.setRelationshipState(RelationshipState.WIDOW);
-                }
-            });
+                return;
+            }
+        } catch (IOException e) {
+            MCA.LOGGER.error("Failed to load family tree names " + index, e);
+        }
+
+        Page page = getPage(index);
+        if (!page.nodes.isEmpty()) {
+            page.nodes.forEach((id, node) -> names.add(id, node.getName()));
+            page.dirty = true;
         }
     }
 
     @Override
     public NbtCompound writeNbt(NbtCompound nbt) {
-        return NbtHelper.fromMap(nbt, entries, UUID::toString, FamilyTreeNode::save);
+        nbt.putInt("pageCount", pageCount);
+        return nbt;
+    }
+
+    @Override
+    public void save(File file) {
+        //pages go first, a converted tree must not lose its nodes if only the page count made it to disk
+        for (Page page : pages.values()) {
+            if (page.dirty) {
+                SaveCoordinator.write(getPageFile(page.index), page.save());
+                SaveCoordinator.write(getNamesFile(page.index), page.saveNames());
+                page.dirty = false;
+            }
+        }
+
+        super.save(file);
+
+        evict();
+    }
+
+    /**
+     * Drops the least recently used pages beyond the configured limit.
+     * This only happens on save, in between ticks, so no one holds on to nodes of a dropped page.
+     */
+    private void evict() {
+        int limit = Config.getInstance().familyTreeResidentPages;
+        if (pages.size() <= limit) {
+            return;
+        }
+
+        IntSet pinned = new IntOpenHashSet();
+        for (ServerWorld world : server.getWorlds()) {
+            for (Entity entity : world.iterateEntities()) {
+                if (entity instanceof PlayerEntity || entity instanceof VillagerLike<?>) {
+                    pinned.add(getPageIndex(entity.getUuid()));
+                }
+            }
+        }
+
+        ObjectIterator<Page> iterator = pages.values().iterator();
+        while (pages.size() > limit && iterator.hasNext()) {
+            Page page = iterator.next();
+            if (!page.dirty && !pinned.contains(page.index)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private int getPageIndex(UUID id) {
+        return Math.floorMod(id.hashCode(), pageCount);
+    }
+
+    private File getPageFile(int index) {
+        return new File(directory, "page_" + index + ".dat");
+    }
+
+    private File getNamesFile(int index) {
+        return new File(directory, "names_" + index + ".dat");
+    }
+
+    private Page getPage(UUID id) {
+        return getPage(getPageIndex(id));
+    }
+
+    private Page getPage(int index) {
+        Page page = pages.getAndMoveToLast(index);
+        if (page == null) {
+            page = new Page(index);
+            try {
+                NbtCompound nbt = SaveCoordinator.read(getPageFile(index));
+                if (nbt != null) {
+                    page.nodes.putAll(NbtHelper.toMap(nbt, UUID::fromString, (id, element) -> new FamilyTreeNode(this, id, (NbtCompound)element)));
+                }
+            } catch (IOException e) {
+                MCA.LOGGER.error("Failed to load family tree page " + index, e);
+            }
+            pages.putAndMoveToLast(index, page);
+        }
+        return page;
+    }
+
+    /**
+     * Marks the page holding the given node as changed.
+     */
+    void markDirty(UUID id) {
+        getPage(id).dirty = true;
     }
 
     public Optional<FamilyTreeNode> getOrEmpty(@Nullable UUID id) {
-        return id == null ? Optional.empty() : Optional.ofNullable(entries.get(id));
+        return id == null ? Optional.empty() : Optional.ofNullable(getPage(id).nodes.get(id));
     }
 
     public Stream<FamilyTreeNode> getAllWithName(String name) {
-        return entries.values().stream().filter(n -> n.getName().equals(name));
+        return names.get(name).stream()
+                .map(this::getOrEmpty)
+                .flatMap(Optional::stream)
+                .filter(n -> n.getName().equals(name));
+    }
+
+    /**
+     * @return up to limit distinct names starting with the given prefix, ignoring case
+     */
+    public List<String> getNamesWithPrefix(String prefix, int limit) {
+        return names.getNamesWithPrefix(prefix, limit);
+    }
+
+    void onRenamed(UUID id, String oldName, String newName) {
+        names.remove(id, oldName);
+        names.add(id, newName);
     }
 
     @NotNull
     public FamilyTreeNode getOrCreate(Entity entity) {
-        return entries.computeIfAbsent(entity.getUuid(), uuid -> createEntry(
+        return getOrCreate(entity.getUuid(), uuid -> createEntry(
                 entity.getUuid(),
                 entity.getName().getString(),
                 EntityRelationship.of(entity).map(EntityRelationship::getGender).orElse(Gender.MALE),
@@ -84,8 +267,12 @@ public class FamilyTree extends PersistentState {
     }
 
     public void remove(UUID id) {
-        entries.remove(id);
-        markDirty();
+        Page page = getPage(id);
+        FamilyTreeNode node = page.nodes.remove(id);
+        if (node != null) {
+            names.remove(id, node.getName());
+        }
+        page.dirty = true;
     }
 
     @NotNull
@@ -95,11 +282,22 @@ public class FamilyTree extends PersistentState {
 
     @NotNull
     public FamilyTreeNode getOrCreate(UUID id, String name, Gender gender, boolean isPlayer) {
-        return entries.computeIfAbsent(id, uuid -> createEntry(uuid, name, gender, isPlayer));
+        return getOrCreate(id, uuid -> createEntry(uuid, name, gender, isPlayer));
+    }
+
+    private FamilyTreeNode getOrCreate(UUID id, Function<UUID, FamilyTreeNode> factory) {
+        Page page = getPage(id);
+        FamilyTreeNode node = page.nodes.get(id);
+        if (node == null) {
+            node = factory.apply(id);
+            page.nodes.put(id, node);
+            page.dirty = true;
+            names.add(id, node.getName());
+        }
+        return node;
     }
 
     private FamilyTreeNode createEntry(UUID uuid, String name, Gender gender, boolean isPlayer) {
-        markDirty();
         return new FamilyTreeNode(this,
                 uuid,
                 name,
@@ -109,4 +307,36 @@ public class FamilyTree extends PersistentState {
                 Util.NIL_UUID
         );
     }
+
+    private static final class Page {
+        final int index;
+        final Map<UUID, FamilyTreeNode> nodes = new HashMap<>();
+        boolean dirty;
+
+        Page(int index) {
+            this.index = index;
+        }
+
+        NbtCompound save() {
+            return NbtHelper.fromMap(new NbtCompound(), nodes, UUID::toString, FamilyTreeNode::save);
+        }
+
+        /**
+         * The ids and names of the nodes on this page, to rebuild the name index without loading the page.
+         */
+        NbtCompound saveNames() {
+            long[] ids = new long[nodes.size() * 2];
+            NbtList list = new NbtList();
+            int i = 0;
+            for (FamilyTreeNode node : nodes.values()) {
+                ids[i++] = node.id().getMostSignificantBits();
+                ids[i++] = node.id().getLeastSignificantBits();
+                list.add(NbtString.of(node.getName()));
+            }
+            NbtCompound nbt = new NbtCompound();
+            nbt.putLongArray("ids", ids);
+            nbt.put("names", list);
+            return nbt;
+        }
+    }
 }
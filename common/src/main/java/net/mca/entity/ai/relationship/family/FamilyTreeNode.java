@@ -1,5 +1,7 @@
 package net.mca.entity.ai.relationship.family;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import net.mca.MCA;
 import net.mca.entity.ai.relationship.EntityRelationship;
 import net.mca.entity.ai.relationship.Gender;
@@ -23,41 +25,57 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public final class FamilyTreeNode implements Serializable {
     @Serial
-    private static final long serialVersionUID = -7307057982785253721L;
+    private static final long serialVersionUID = 2684370215472339152L;
+
+    /**
+     * Names and professions repeat a lot across a large tree, nodes share a single instance of each.
+     */
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+    private static final long[] NO_CHILDREN = new long[0];
+
+    private static final int FATHER = 0;
+    private static final int MOTHER = 2;
+    private static final int PARTNER = 4;
 
     private final boolean isPlayer;
 
     private Gender gender;
 
     private String name;
-    private String profession = Registry.VILLAGER_PROFESSION.getId(VillagerProfession.NONE).toString();
+    private String profession = STRINGS.intern(Registry.VILLAGER_PROFESSION.getId(VillagerProfession.NONE).toString());
 
     private final UUID id;
 
-    private UUID father;
-    private UUID mother;
+    /**
+     * Father, mother and partner, each as the most and least significant bits of their UUID.
+     */
+    private final long[] relatives = new long[6];
 
-    private UUID partner = Util.NIL_UUID;
     private RelationshipState relationshipState = RelationshipState.SINGLE;
 
     private boolean deceased;
 
-    private final Set<UUID> children = new HashSet<>();
+    /**
+     * The children as pairs of most and least significant bits, sorted.
+     */
+    private long[] children = NO_CHILDREN;
 
     private transient final FamilyTree rootNode;
 
     public FamilyTreeNode(FamilyTree rootNode, UUID id, String name, boolean isPlayer, Gender gender, UUID father, UUID mother) {
         this.rootNode = rootNode;
         this.id = id;
-        this.name = name;
+        this.name = STRINGS.intern(name);
         this.isPlayer = isPlayer;
         this.gender = gender;
-        this.father = father;
-        this.mother = mother;
+        setRelative(FATHER, father);
+        setRelative(MOTHER, mother);
     }
 
     public FamilyTreeNode(FamilyTree rootNode, UUID id, NbtCompound nbt) {
@@ -70,11 +88,15 @@ public final class FamilyTreeNode implements Serializable {
                 nbt.getUuid("father"),
                 nbt.getUuid("mother")
         );
-        children.addAll(NbtHelper.toList(nbt.getList("children", NbtElement.COMPOUND_TYPE), c -> ((NbtCompound)c).getUuid("uuid")));
-        profession = nbt.getString("profession");
+        if (nbt.contains("childIds", NbtElement.LONG_ARRAY_TYPE)) {
+            children = nbt.getLongArray("childIds");
+        } else {
+            NbtHelper.toList(nbt.getList("children", NbtElement.COMPOUND_TYPE), c -> ((NbtCompound)c).getUuid("uuid")).forEach(this::addChildId);
+        }
+        profession = STRINGS.intern(nbt.getString("profession"));
         deceased = nbt.getBoolean("isDeceased");
         if (nbt.containsUuid("spouse")) {
-            partner = nbt.getUuid("spouse");
+            setRelative(PARTNER, nbt.getUuid("spouse"));
         }
         relationshipState = RelationshipState.byId(nbt.getInt("marriageState"));
     }
@@ -83,9 +105,72 @@ public final class FamilyTreeNode implements Serializable {
         return id;
     }
 
+    private UUID getRelative(int index) {
+        return new UUID(relatives[index], relatives[index + 1]);
+    }
+
+    private void setRelative(int index, UUID uuid) {
+        relatives[index] = uuid.getMostSignificantBits();
+        relatives[index + 1] = uuid.getLeastSignificantBits();
+    }
+
+    private boolean hasRelative(int index) {
+        return relatives[index] != 0 || relatives[index + 1] != 0;
+    }
+
+    /**
+     * @return the position of the child in {@link #children}, or the negated insertion point minus one
+     */
+    private int findChild(long most, long least) {
+        int low = 0;
+        int high = children.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = Long.compare(children[mid * 2], most);
+            if (c == 0) {
+                c = Long.compare(children[mid * 2 + 1], least);
+            }
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private boolean addChildId(UUID child) {
+        int i = findChild(child.getMostSignificantBits(), child.getLeastSignificantBits());
+        if (i >= 0) {
+            return false;
+        }
+        i = -(i + 1);
+        long[] grown = new long[children.length + 2];
+        System.arraycopy(children, 0, grown, 0, i * 2);
+        grown[i * 2] = child.getMostSignificantBits();
+        grown[i * 2 + 1] = child.getLeastSignificantBits();
+        System.arraycopy(children, i * 2, grown, i * 2 + 2, children.length - i * 2);
+        children = grown;
+        return true;
+    }
+
+    private boolean removeChildId(UUID child) {
+        int i = findChild(child.getMostSignificantBits(), child.getLeastSignificantBits());
+        if (i < 0) {
+            return false;
+        }
+        long[] shrunk = children.length == 2 ? NO_CHILDREN : new long[children.length - 2];
+        System.arraycopy(children, 0, shrunk, 0, i * 2);
+        System.arraycopy(children, i * 2 + 2, shrunk, i * 2, children.length - i * 2 - 2);
+        children = shrunk;
+        return true;
+    }
+
     private void markDirty() {
         if (rootNode != null) {
-            rootNode.markDirty();
+            rootNode.markDirty(id);
         }
     }
 
@@ -99,7 +184,10 @@ public final class FamilyTreeNode implements Serializable {
     }
 
     public void setName(String name) {
-        this.name = name;
+        if (rootNode != null && !name.equals(this.name)) {
+            rootNode.onRenamed(id, this.name, name);
+        }
+        this.name = STRINGS.intern(name);
         markDirty();
     }
 
@@ -108,7 +196,7 @@ public final class FamilyTreeNode implements Serializable {
     }
 
     public void setProfession(VillagerProfession profession) {
-        this.profession = Registry.VILLAGER_PROFESSION.getId(profession).toString();
+        this.profession = STRINGS.intern(Registry.VILLAGER_PROFESSION.getId(profession).toString());
         markDirty();
     }
 
@@ -143,18 +231,18 @@ public final class FamilyTreeNode implements Serializable {
     }
 
     public UUID father() {
-        return father;
+        return getRelative(FATHER);
     }
 
     public UUID mother() {
-        return mother;
+        return getRelative(MOTHER);
     }
 
     /**
      * Id of the last this entity's most recent partner.
      */
     public UUID partner() {
-        return partner;
+        return getRelative(PARTNER);
     }
 
     public RelationshipState getRelationshipState() {
@@ -164,23 +252,26 @@ public final class FamilyTreeNode implements Serializable {
     //debug usage only
     public void setRelationshipState(RelationshipState relationshipState) {
         this.relationshipState = relationshipState;
+        markDirty();
     }
 
     public void updatePartner(@Nullable Entity newPartner, @Nullable RelationshipState state) {
         //cancel relationship with previous partner
-        if (!this.partner.equals(Util.NIL_UUID) && (newPartner == null || !this.partner.equals(newPartner.getUuid()))) {
-            getRoot().getOrEmpty(this.partner).ifPresent(n -> {
+        UUID partner = partner();
+        if (!partner.equals(Util.NIL_UUID) && (newPartner == null || !partner.equals(newPartner.getUuid()))) {
+            getRoot().getOrEmpty(partner).ifPresent(n -> {
                 if (n.relationshipState == RelationshipState.ENGAGED) {
                     if (isPlayer) {
                         //todo PlayerSaveData#sendLetterOfEngagement (Likely refactor to a new event, onEngagement, in 7.4.0)
                     }
                 }
-                n.partner = Util.NIL_UUID;
+                n.setRelative(PARTNER, Util.NIL_UUID);
                 n.relationshipState = RelationshipState.SINGLE;
+                n.markDirty();
             });
         }
 
-        this.partner = newPartner == null ? Util.NIL_UUID : newPartner.getUuid();
+        setRelative(PARTNER, newPartner == null ? Util.NIL_UUID : newPartner.getUuid());
         this.relationshipState = state == null && newPartner == null ? RelationshipState.SINGLE : state;
 
         // ensure the family tree has an entry
@@ -188,21 +279,30 @@ public final class FamilyTreeNode implements Serializable {
             rootNode.getOrCreate(newPartner);
         }
 
-        rootNode.markDirty();
+        markDirty();
     }
 
     public void updatePartner(FamilyTreeNode spouse) {
-        this.partner = spouse.id();
+        setRelative(PARTNER, spouse.id());
         this.relationshipState = spouse.isPlayer ? RelationshipState.MARRIED_TO_PLAYER : RelationshipState.MARRIED_TO_VILLAGER;
         markDirty();
     }
 
+    /**
+     * @return a copy of the children
+     */
     public Set<UUID> children() {
-        return children;
+        Set<UUID> set = new HashSet<>();
+        for (int i = 0; i < children.length; i += 2) {
+            set.add(new UUID(children[i], children[i + 1]));
+        }
+        return set;
     }
 
     public Stream<UUID> streamChildren() {
-        return children.stream().filter(FamilyTreeNode::isValid);
+        return IntStream.range(0, children.length / 2)
+                .mapToObj(i -> new UUID(children[i * 2], children[i * 2 + 1]))
+                .filter(FamilyTreeNode::isValid);
     }
 
     public Stream<UUID> streamParents() {
@@ -300,7 +400,9 @@ public final class FamilyTreeNode implements Serializable {
     }
 
     public void addChild(UUID child) {
-        children.add(child);
+        if (addChildId(child)) {
+            markDirty();
+        }
     }
 
     public FamilyTree getRoot() {
@@ -312,13 +414,13 @@ public final class FamilyTreeNode implements Serializable {
     }
 
     public boolean assignParent(FamilyTreeNode parent) {
-        int parents = (isValid(father) ? 1 : 0) + (isValid(mother) ? 1 : 0);
+        int parents = (isValid(father()) ? 1 : 0) + (isValid(mother()) ? 1 : 0);
 
         if (parents == 1) {
             //fill up last slot, independent on gender
-            if (!isValid(father)) {
+            if (!isValid(father())) {
                 return setFather(parent);
-            } else if (!isValid(mother)) {
+            } else if (!isValid(mother())) {
                 return setMother(parent);
             }
         } else {
@@ -333,23 +435,26 @@ public final class FamilyTreeNode implements Serializable {
     }
 
     public boolean setFather(FamilyTreeNode parent) {
-        father = parent.id();
-        parent.children().add(id);
+        setRelative(FATHER, parent.id());
+        parent.addChild(id);
         markDirty();
         return true;
     }
 
     public boolean setMother(FamilyTreeNode parent) {
-        mother = parent.id();
-        parent.children().add(id);
+        setRelative(MOTHER, parent.id());
+        parent.addChild(id);
         markDirty();
         return true;
     }
 
     public boolean removeFather() {
-        if (isValid(father)) {
-            rootNode.getOrEmpty(father).ifPresent(e -> e.children.remove(this.id));
-            father = Util.NIL_UUID;
+        if (isValid(father())) {
+            rootNode.getOrEmpty(father()).ifPresent(e -> {
+                e.removeChildId(this.id);
+                e.markDirty();
+            });
+            setRelative(FATHER, Util.NIL_UUID);
             markDirty();
             return true;
         } else {
@@ -358,9 +463,12 @@ public final class FamilyTreeNode implements Serializable {
     }
 
     public boolean removeMother() {
-        if (isValid(mother)) {
-            rootNode.getOrEmpty(mother).ifPresent(e -> e.children.remove(this.id));
-            mother = Util.NIL_UUID;
+        if (isValid(mother())) {
+            rootNode.getOrEmpty(mother()).ifPresent(e -> {
+                e.removeChildId(this.id);
+                e.markDirty();
+            });
+            setRelative(MOTHER, Util.NIL_UUID);
             markDirty();
             return true;
         } else {
@@ -375,15 +483,15 @@ public final class FamilyTreeNode implements Serializable {
 
     // entries with these conditions are usually generated
     public boolean probablyGenerated() {
-        return mother.equals(Util.NIL_UUID) && father.equals(Util.NIL_UUID) && children.size() == 1 && deceased && !isPlayer();
+        return !hasRelative(MOTHER) && !hasRelative(FATHER) && children.length == 2 && deceased && !isPlayer();
     }
 
     // true if there is at least one non-generated relative
     public boolean willBeRemembered() {
-        if (!children.isEmpty()) {
+        if (children.length > 0) {
             return true;
         }
-        if (!partner.equals(Util.NIL_UUID)) {
+        if (hasRelative(PARTNER)) {
             return true;
         }
         return !getParents().allMatch(FamilyTreeNode::probablyGenerated);
@@ -421,15 +529,11 @@ public final class FamilyTreeNode implements Serializable {
         nbt.putBoolean("isPlayer", isPlayer);
         nbt.putBoolean("isDeceased", deceased);
         nbt.putInt("gender", gender.getId());
-        nbt.putUuid("father", father);
-        nbt.putUuid("mother", mother);
-        nbt.putUuid("spouse", partner);
+        nbt.putUuid("father", father());
+        nbt.putUuid("mother", mother());
+        nbt.putUuid("spouse", partner());
         nbt.putInt("marriageState", relationshipState.ordinal());
-        nbt.put("children", NbtHelper.fromList(children, child -> {
-            NbtCompound n = new NbtCompound();
-            n.putUuid("uuid", child);
-            return n;
-        }));
+        nbt.putLongArray("childIds", children);
         return nbt;
     }
 }
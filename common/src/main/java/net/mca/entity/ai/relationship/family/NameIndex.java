@@ -0,0 +1,69 @@
+package net.mca.entity.ai.relationship.family;
+
+import java.util.*;
+
+/**
+ * The ids of all family tree nodes by their name, so lookups by name don't need to load every page.
+ * Names are matched case-insensitive, a sorted copy of the names serves prefix searches.
+ * The index itself is not saved, it is rebuilt from the name lists stored next to each page.
+ */
+class NameIndex {
+    private final Map<String, Entry> byName = new HashMap<>();
+    private final NavigableSet<String> sorted = new TreeSet<>();
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public void add(UUID id, String name) {
+        String key = normalize(name);
+        Entry entry = byName.get(key);
+        if (entry == null) {
+            entry = new Entry(name);
+            byName.put(key, entry);
+            sorted.add(key);
+        }
+        entry.ids.add(id);
+    }
+
+    public void remove(UUID id, String name) {
+        String key = normalize(name);
+        Entry entry = byName.get(key);
+        if (entry != null && entry.ids.remove(id) && entry.ids.isEmpty()) {
+            byName.remove(key);
+            sorted.remove(key);
+        }
+    }
+
+    /**
+     * @return the ids of all nodes with this name, ignoring case
+     */
+    public List<UUID> get(String name) {
+        Entry entry = byName.get(normalize(name));
+        return entry == null ? List.of() : List.copyOf(entry.ids);
+    }
+
+    /**
+     * @return up to limit names starting with the given prefix, ignoring case, in alphabetical order
+     */
+    public List<String> getNamesWithPrefix(String prefix, int limit) {
+        List<String> names = new ArrayList<>();
+        String key = normalize(prefix);
+        for (String name : sorted.tailSet(key, true)) {
+            if (!name.startsWith(key) || names.size() >= limit) {
+                break;
+            }
+            names.add(byName.get(name).name);
+        }
+        return names;
+    }
+
+    private static final class Entry {
+        final String name;
+        final Set<UUID> ids = new HashSet<>();
+
+        Entry(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package net.mca.mixin;
+
+import net.mca.cobalt.network.NetworkHandler;
+import net.mca.server.world.data.SaveCoordinator;
+import net.minecraft.server.MinecraftServer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(MinecraftServer.class)
+abstract class MixinMinecraftServer {
+    @Inject(method = "save(ZZZ)Z", at = @At("RETURN"))
+    private void onSave(boolean suppressLogs, boolean flush, boolean force, CallbackInfoReturnable<Boolean> info) {
+        if (flush) {
+            SaveCoordinator.flush();
+        }
+    }
+
+    @Inject(method = "shutdown()V", at = @At("HEAD"))
+    private void onShutdown(CallbackInfo info) {
+        NetworkHandler.clear();
+    }
+}
@@ -35,6 +35,7 @@ abstract class MixinServerWorld extends World implements StructureWorldAccess {
     public void onOnBlockChanged(BlockPos pos, BlockState oldBlock, BlockState newBlock, CallbackInfo info) {
         if (oldBlock.getBlock() != newBlock.getBlock()) {
             final ServerWorld self = (ServerWorld)(Object)this;
+            VillageManager.get(self).onBlockChanged(pos, oldBlock, newBlock);
             self.getServer().execute(() ->
                     VillageManager.get(self).getReaperSpawner().trySpawnReaper(self, newBlock, pos)
             );
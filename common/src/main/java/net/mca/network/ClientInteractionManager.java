@@ -36,4 +36,8 @@ public interface ClientInteractionManager {
     void handleSkinListResponse(SkinListResponse response);
 
     void handleDestinyGuiRequest(OpenDestinyGuiRequest request);
+
+    void handleRegistrySync(RegistrySyncMessage message);
+
+    void handleVillagerMemories(VillagerMemoriesMessage message);
 }
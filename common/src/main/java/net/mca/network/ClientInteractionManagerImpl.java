@@ -18,6 +18,7 @@ import net.minecraft.client.toast.SystemToast;
 import net.minecraft.entity.Entity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.Hand;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.registry.Registry;
 
 import java.util.Optional;
@@ -118,12 +119,21 @@ public class ClientInteractionManagerImpl implements ClientInteractionManager {
     @Override
     public void handleVillageDataResponse(GetVillageResponse message) {
         Screen screen = client.currentScreen;
-        if (screen instanceof BlueprintScreen gui) {
-            Village village = new Village();
-            village.load(message.getData());
+        if (screen instanceof BlueprintScreen gui && client.world != null) {
+            Identifier dimension = client.world.getRegistryKey().getValue();
+            Village village = MCAClient.getCachedVillage(dimension).orElse(null);
+            if (!message.unchanged || village == null) {
+                int id = message.getData().getInt("id");
+                if (village == null || village.getId() != id) {
+                    village = new Village();
+                }
+                village.loadDelta(message.getData());
+                MCAClient.setCachedVillage(dimension, village);
+            }
 
             gui.setVillage(village);
-            gui.setRank(message.rank, message.reputation, message.isVillage, message.ids, message.tasks, message.buildingTypes);
+            gui.setRank(message.rank, message.reputation, message.isVillage, message.ids,
+                    MCAClient.getRegistry(message.tasksHash), MCAClient.getRegistry(message.buildingTypesHash));
         }
     }
 
@@ -210,7 +220,7 @@ public class ClientInteractionManagerImpl implements ClientInteractionManager {
     public void handleSkinListResponse(SkinListResponse message) {
         Screen screen = client.currentScreen;
         if (screen instanceof VillagerEditorScreen gui) {
-            gui.setSkinList(message.getClothing(), message.getHair());
+            gui.setSkinList(MCAClient.getRegistry(message.getClothingHash()), MCAClient.getRegistry(message.getHairHash()));
         }
     }
 
@@ -218,4 +228,19 @@ public class ClientInteractionManagerImpl implements ClientInteractionManager {
     public void handleDestinyGuiRequest(OpenDestinyGuiRequest message) {
         MCAClient.getDestinyManager().requestOpen(message.allowTeleportation);
     }
+
+    @Override
+    public void handleVillagerMemories(VillagerMemoriesMessage message) {
+        if (client.world != null && client.world.getEntityById(message.entityId) instanceof VillagerLike<?> villager) {
+            villager.getVillagerBrain().setMemories(message.getData());
+        }
+    }
+
+    @Override
+    public void handleRegistrySync(RegistrySyncMessage message) {
+        MCAClient.putRegistry(message.tasksHash, message.tasks);
+        MCAClient.putRegistry(message.buildingTypesHash, message.buildingTypes);
+        MCAClient.putRegistry(message.clothingHash, message.clothing);
+        MCAClient.putRegistry(message.hairHash, message.hair);
+    }
 }
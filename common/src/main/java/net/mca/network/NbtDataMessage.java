@@ -3,6 +3,8 @@ package net.mca.network;
 import net.mca.cobalt.network.Message;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtTagSizeTracker;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.*;
 
@@ -16,6 +18,17 @@ public abstract class NbtDataMessage implements Message {
         this.data = new Data(data);
     }
 
+    protected NbtDataMessage(PacketByteBuf b) {
+        this.data = new Data(b.readNbt(NbtTagSizeTracker.EMPTY));
+    }
+
+    /**
+     * Writes the payload for subclasses using the binary codec, read back by {@link #NbtDataMessage(PacketByteBuf)}.
+     */
+    protected void writeData(PacketByteBuf b) {
+        b.writeNbt(data.nbt);
+    }
+
     public NbtCompound getData() {
         return data.nbt;
     }
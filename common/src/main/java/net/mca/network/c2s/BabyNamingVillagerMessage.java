@@ -3,6 +3,7 @@ package net.mca.network.c2s;
 import net.mca.cobalt.network.Message;
 import net.mca.server.world.data.BabyTracker;
 import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -19,6 +20,17 @@ public class BabyNamingVillagerMessage implements Message {
         this.name = name;
     }
 
+    public BabyNamingVillagerMessage(PacketByteBuf b) {
+        slot = b.readInt();
+        name = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeInt(slot);
+        b.writeString(name);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         ItemStack stack = player.getInventory().getStack(slot);
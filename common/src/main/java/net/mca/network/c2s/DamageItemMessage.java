@@ -3,6 +3,7 @@ package net.mca.network.c2s;
 import net.mca.cobalt.network.Message;
 import net.minecraft.entity.EquipmentSlot;
 import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Hand;
 import net.minecraft.util.Identifier;
@@ -21,6 +22,15 @@ public class DamageItemMessage implements Message {
         itemIdentifier = identifier.toString();
     }
 
+    public DamageItemMessage(PacketByteBuf b) {
+        itemIdentifier = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeString(itemIdentifier);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Arrays.stream(Hand.values()).forEach(hand -> {
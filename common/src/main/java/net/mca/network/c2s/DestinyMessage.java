@@ -4,6 +4,7 @@ import net.mca.Config;
 import net.mca.cobalt.network.Message;
 import net.mca.util.WorldUtils;
 import net.mca.util.compat.FuzzyPositionsCompat;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.network.packet.s2c.play.PlayerPositionLookS2CPacket;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ChunkTicketType;
@@ -35,6 +36,20 @@ public class DestinyMessage implements Message {
         this(null, isClosing);
     }
 
+    public DestinyMessage(PacketByteBuf b) {
+        location = b.readBoolean() ? b.readString() : null;
+        isClosing = b.readBoolean();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeBoolean(location != null);
+        if (location != null) {
+            b.writeString(location);
+        }
+        b.writeBoolean(isClosing);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         if (isClosing && player.isSpectator()) {
@@ -6,8 +6,12 @@ import net.mca.network.s2c.GetVillageFailedResponse;
 import net.mca.network.s2c.GetVillageResponse;
 import net.mca.resources.Rank;
 import net.mca.resources.Tasks;
+import net.mca.server.RegistrySync;
 import net.mca.server.world.data.Village;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serial;
 import java.util.Optional;
@@ -17,6 +21,40 @@ public class GetVillageRequest implements Message {
     @Serial
     private static final long serialVersionUID = -1302412553466016247L;
 
+    @Nullable
+    private final Identifier dimension;
+    private final int villageId;
+    private final long revision;
+
+    /**
+     * Village ids are only unique within a dimension, so the cached village is identified by both.
+     *
+     * @param dimension the dimension of the village cached by the client, or null
+     * @param villageId the id of the village cached by the client, or -1
+     * @param revision  the revision of that cached village, or -1
+     */
+    public GetVillageRequest(@Nullable Identifier dimension, int villageId, long revision) {
+        this.dimension = dimension;
+        this.villageId = villageId;
+        this.revision = revision;
+    }
+
+    public GetVillageRequest(PacketByteBuf b) {
+        dimension = b.readBoolean() ? b.readIdentifier() : null;
+        villageId = b.readInt();
+        revision = b.readLong();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeBoolean(dimension != null);
+        if (dimension != null) {
+            b.writeIdentifier(dimension);
+        }
+        b.writeInt(villageId);
+        b.writeLong(revision);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Optional<Village> village = Village.findNearest(player);
@@ -25,7 +63,10 @@ public class GetVillageRequest implements Message {
             boolean isVillage = village.get().isVillage();
             Rank rank = Tasks.getRank(village.get(), player);
             Set<String> ids = Tasks.getCompletedIds(village.get(), player);
-            NetworkHandler.sendToPlayer(new GetVillageResponse(village.get(), rank, reputation, isVillage, ids), player);
+            RegistrySync.sync(player);
+            boolean cached = village.get().getId() == villageId && player.getWorld().getRegistryKey().getValue().equals(dimension);
+            long since = cached ? revision : -1;
+            NetworkHandler.sendToPlayer(new GetVillageResponse(village.get(), since, rank, reputation, isVillage, ids), player);
         } else {
             NetworkHandler.sendToPlayer(new GetVillageFailedResponse(), player);
         }
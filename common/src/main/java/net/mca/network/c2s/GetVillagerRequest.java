@@ -10,6 +10,7 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.mob.MobEntity;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Util;
@@ -28,6 +29,15 @@ public class GetVillagerRequest implements Message {
         this.uuid = uuid;
     }
 
+    public GetVillagerRequest(PacketByteBuf b) {
+        uuid = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeUuid(uuid);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Entity e = player.getWorld().getEntity(uuid);
@@ -3,6 +3,7 @@ package net.mca.network.c2s;
 import net.mca.cobalt.network.Message;
 import net.mca.entity.VillagerEntityMCA;
 import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -18,6 +19,15 @@ public class InteractionCloseRequest implements Message {
         villagerUUID = uuid;
     }
 
+    public InteractionCloseRequest(PacketByteBuf b) {
+        villagerUUID = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeUuid(villagerUUID);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         Entity v = player.getWorld().getEntity(villagerUUID);
@@ -6,6 +6,7 @@ import net.mca.network.s2c.PlayerDataMessage;
 import net.mca.server.world.data.PlayerSaveData;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -21,6 +22,15 @@ public class PlayerDataRequest implements Message {
         this.uuid = uuid;
     }
 
+    public PlayerDataRequest(PacketByteBuf b) {
+        uuid = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeUuid(uuid);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         PlayerEntity playerEntity = player.getWorld().getPlayerByUuid(uuid);
@@ -2,6 +2,7 @@ package net.mca.network.c2s;
 
 import net.mca.cobalt.network.Message;
 import net.mca.server.world.data.VillageManager;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -18,8 +19,22 @@ public class RenameVillageMessage implements Message {
         this.name = name;
     }
 
+    public RenameVillageMessage(PacketByteBuf b) {
+        id = b.readInt();
+        name = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeInt(id);
+        b.writeString(name);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
-        VillageManager.get(player.getWorld()).getOrEmpty(id).ifPresent(v -> v.setName(name));
+        VillageManager.get(player.getWorld()).getOrEmpty(id).ifPresent(v -> {
+            v.setName(name);
+            v.markDirty(player.getWorld());
+        });
     }
 }
@@ -5,6 +5,7 @@ import net.mca.server.world.data.Building;
 import net.mca.server.world.data.GraveyardManager;
 import net.mca.server.world.data.Village;
 import net.mca.server.world.data.VillageManager;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.TranslatableText;
 
@@ -28,27 +29,44 @@ public class ReportBuildingMessage implements Message {
         this(action, null);
     }
 
+    public ReportBuildingMessage(PacketByteBuf b) {
+        action = b.readEnumConstant(Action.class);
+        data = b.readBoolean() ? b.readString() : null;
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeEnumConstant(action);
+        b.writeBoolean(data != null);
+        if (data != null) {
+            b.writeString(data);
+        }
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         VillageManager villages = VillageManager.get(player.getWorld());
         switch (action) {
             case ADD, ADD_ROOM -> {
-                Building.validationResult result = villages.processBuilding(player.getBlockPos(), true, action == Action.ADD_ROOM);
-                player.sendMessage(new TranslatableText("blueprint.scan." + result.name().toLowerCase(Locale.ENGLISH)), true);
+                villages.processBuildingAsync(player.getBlockPos(), true, action == Action.ADD_ROOM).thenAccept(result -> {
+                    player.sendMessage(new TranslatableText("blueprint.scan." + result.name().toLowerCase(Locale.ENGLISH)), true);
 
-                // also add tombstones
-                GraveyardManager.get(player.getWorld()).reportToVillageManager(player);
+                    // also add tombstones
+                    GraveyardManager.get(player.getWorld()).reportToVillageManager(player);
+                });
             }
-            case AUTO_SCAN -> villages.findNearestVillage(player).ifPresent(Village::toggleAutoScan);
+            case AUTO_SCAN -> villages.findNearestVillage(player).ifPresent(v -> {
+                v.toggleAutoScan();
+                v.markDirty(player.getWorld());
+            });
             case FULL_SCAN -> villages.findNearestVillage(player).ifPresent(buildings ->
-                    buildings.getBuildings().values().stream().toList().forEach(b ->
-                            villages.processBuilding(b.getCenter(), true, false)
+                    buildings.getBuildings().values().forEach(b ->
+                            villages.reportBuildingByPlayer(b.getCenter())
                     )
             );
             case FORCE_TYPE, REMOVE -> {
                 Optional<Village> village = villages.findNearestVillage(player);
-                Optional<Building> building = village.flatMap(v -> v.getBuildings().values().stream().filter((b) ->
-                        b.containsPos(player.getBlockPos())).findAny());
+                Optional<Building> building = village.flatMap(v -> v.getBuildingAt(player.getBlockPos()));
                 if (building.isPresent()) {
                     if (action == Action.FORCE_TYPE) {
                         if (building.get().getType().equals(data)) {
@@ -56,6 +74,7 @@ public class ReportBuildingMessage implements Message {
                         } else {
                             building.get().setForcedType(data);
                         }
+                        village.get().markDirty(player.getWorld());
                     } else {
                         village.get().removeBuilding(building.get().getId());
                         village.get().markDirty(player.getWorld());
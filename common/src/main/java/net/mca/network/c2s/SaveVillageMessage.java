@@ -3,6 +3,7 @@ package net.mca.network.c2s;
 import net.mca.cobalt.network.Message;
 import net.mca.server.world.data.Village;
 import net.mca.server.world.data.VillageManager;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -17,10 +18,29 @@ public class SaveVillageMessage implements Message {
     private final int marriageThreshold;
 
     public SaveVillageMessage(Village village) {
-        this.id = village.getId();
-        this.taxes = village.getTaxes();
-        this.populationThreshold = village.getPopulationThreshold();
-        this.marriageThreshold = village.getMarriageThreshold();
+        this(village.getId(), village.getTaxes(), village.getPopulationThreshold(), village.getMarriageThreshold());
+    }
+
+    public SaveVillageMessage(int id, int taxes, int populationThreshold, int marriageThreshold) {
+        this.id = id;
+        this.taxes = taxes;
+        this.populationThreshold = populationThreshold;
+        this.marriageThreshold = marriageThreshold;
+    }
+
+    public SaveVillageMessage(PacketByteBuf b) {
+        id = b.readInt();
+        taxes = b.readInt();
+        populationThreshold = b.readInt();
+        marriageThreshold = b.readInt();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeInt(id);
+        b.writeInt(taxes);
+        b.writeInt(populationThreshold);
+        b.writeInt(marriageThreshold);
     }
 
     @Override
@@ -29,6 +49,7 @@ public class SaveVillageMessage implements Message {
             village.setTaxes(taxes);
             village.setPopulationThreshold(populationThreshold);
             village.setMarriageThreshold(marriageThreshold);
+            village.markDirty(player.getWorld());
         });
     }
 }
@@ -5,6 +5,8 @@ import net.mca.cobalt.network.NetworkHandler;
 import net.mca.network.s2c.SkinListResponse;
 import net.mca.resources.ClothingList;
 import net.mca.resources.HairList;
+import net.mca.server.RegistrySync;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -13,8 +15,20 @@ public class SkinListRequest implements Message {
     @Serial
     private static final long serialVersionUID = -6508206556519152120L;
 
+    public SkinListRequest() {
+    }
+
+    public SkinListRequest(PacketByteBuf b) {
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        // no payload
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
-        NetworkHandler.sendToPlayer(new SkinListResponse(ClothingList.getInstance().clothing, HairList.getInstance().hair), player);
+        RegistrySync.sync(player);
+        NetworkHandler.sendToPlayer(new SkinListResponse(ClothingList.getInstance().getHash(), HairList.getInstance().getHash()), player);
     }
 }
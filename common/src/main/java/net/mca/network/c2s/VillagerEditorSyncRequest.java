@@ -17,6 +17,7 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.TranslatableText;
@@ -44,6 +45,19 @@ public class VillagerEditorSyncRequest extends NbtDataMessage implements Message
         this.uuid = uuid;
     }
 
+    public VillagerEditorSyncRequest(PacketByteBuf b) {
+        super(b);
+        command = b.readString();
+        uuid = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        writeData(b);
+        b.writeString(command);
+        b.writeUuid(uuid);
+    }
+
     private void setHair(ServerPlayerEntity player, Entity entity) {
         NbtCompound villagerData = GetVillagerRequest.getVillagerData(entity);
         if (villagerData != null) {
@@ -5,6 +5,7 @@ import net.mca.cobalt.network.NetworkHandler;
 import net.mca.entity.ai.relationship.Gender;
 import net.mca.network.s2c.VillagerNameResponse;
 import net.mca.resources.Names;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -19,6 +20,15 @@ public class VillagerNameRequest implements Message {
         this.gender = gender;
     }
 
+    public VillagerNameRequest(PacketByteBuf b) {
+        gender = b.readEnumConstant(Gender.class);
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeEnumConstant(gender);
+    }
+
     @Override
     public void receive(ServerPlayerEntity player) {
         String name = Names.pickCitizenName(gender);
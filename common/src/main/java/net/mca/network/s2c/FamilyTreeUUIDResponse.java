@@ -3,6 +3,7 @@ package net.mca.network.s2c;
 import net.mca.ClientProxy;
 import net.mca.cobalt.network.Message;
 import net.mca.resources.data.SerializablePair;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 import java.util.List;
@@ -18,6 +19,19 @@ public class FamilyTreeUUIDResponse implements Message {
         this.list = list;
     }
 
+    public FamilyTreeUUIDResponse(PacketByteBuf b) {
+        list = b.readList(buf -> new SerializablePair<>(buf.readUuid(), new SerializablePair<>(buf.readString(), buf.readString())));
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeCollection(list, (buf, entry) -> {
+            buf.writeUuid(entry.getLeft());
+            buf.writeString(entry.getRight().getLeft());
+            buf.writeString(entry.getRight().getRight());
+        });
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleFamilyTreeUUIDResponse(this);
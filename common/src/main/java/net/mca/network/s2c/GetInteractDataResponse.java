@@ -4,8 +4,10 @@ import net.mca.ClientProxy;
 import net.mca.client.gui.Constraint;
 import net.mca.cobalt.network.Message;
 import net.mca.entity.ai.relationship.RelationshipState;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
+import java.util.EnumSet;
 import java.util.Set;
 
 public class GetInteractDataResponse implements Message {
@@ -26,6 +28,34 @@ public class GetInteractDataResponse implements Message {
         this.marriageState = marriageState;
     }
 
+    public GetInteractDataResponse(PacketByteBuf b) {
+        constraints = b.readCollection(i -> EnumSet.noneOf(Constraint.class), buf -> buf.readEnumConstant(Constraint.class));
+        father = readNullableString(b);
+        mother = readNullableString(b);
+        spouse = readNullableString(b);
+        marriageState = b.readEnumConstant(RelationshipState.class);
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeCollection(constraints, PacketByteBuf::writeEnumConstant);
+        writeNullableString(b, father);
+        writeNullableString(b, mother);
+        writeNullableString(b, spouse);
+        b.writeEnumConstant(marriageState);
+    }
+
+    private static String readNullableString(PacketByteBuf b) {
+        return b.readBoolean() ? b.readString() : null;
+    }
+
+    private static void writeNullableString(PacketByteBuf b, String s) {
+        b.writeBoolean(s != null);
+        if (s != null) {
+            b.writeString(s);
+        }
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleInteractDataResponse(this);
@@ -2,6 +2,7 @@ package net.mca.network.s2c;
 
 import net.mca.ClientProxy;
 import net.mca.cobalt.network.Message;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 
@@ -9,6 +10,17 @@ public class GetVillageFailedResponse implements Message {
     @Serial
     private static final long serialVersionUID = 4021214184633955444L;
 
+    public GetVillageFailedResponse() {
+    }
+
+    public GetVillageFailedResponse(PacketByteBuf b) {
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        // no payload
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleVillageDataFailedResponse(this);
@@ -5,34 +5,66 @@ import net.mca.network.NbtDataMessage;
 import net.mca.resources.API;
 import net.mca.resources.Rank;
 import net.mca.resources.Tasks;
-import net.mca.resources.data.BuildingType;
-import net.mca.resources.data.tasks.Task;
 import net.mca.server.world.data.Village;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
-import java.util.List;
-import java.util.Map;
+import java.util.HashSet;
 import java.util.Set;
 
 public class GetVillageResponse extends NbtDataMessage {
     @Serial
     private static final long serialVersionUID = 4882425683460617550L;
 
+    public final boolean unchanged;
     public final Rank rank;
     public final int reputation;
     public final boolean isVillage;
     public final Set<String> ids;
-    public final Map<Rank, List<Task>> tasks;
-    public final Map<String, BuildingType> buildingTypes;
+    public final long tasksHash;
+    public final long buildingTypesHash;
 
-    public GetVillageResponse(Village data, Rank rank, int reputation, boolean isVillage, Set<String> ids) {
-        super(data.save());
+    /**
+     * @param since the revision the client already knows, the response only contains changes made after it
+     */
+    public GetVillageResponse(Village data, long since, Rank rank, int reputation, boolean isVillage, Set<String> ids) {
+        this(since == data.getRevision() ? new NbtCompound() : data.saveDelta(since), since == data.getRevision(),
+                rank, reputation, isVillage, ids, Tasks.getInstance().getHash(), API.getVillagePool().getBuildingTypesHash());
+    }
+
+    public GetVillageResponse(NbtCompound data, boolean unchanged, Rank rank, int reputation, boolean isVillage, Set<String> ids, long tasksHash, long buildingTypesHash) {
+        super(data);
+        this.unchanged = unchanged;
         this.rank = rank;
         this.reputation = reputation;
         this.isVillage = isVillage;
         this.ids = ids;
-        this.tasks = Tasks.getInstance().tasks;
-        this.buildingTypes = API.getVillagePool().getBuildingTypes();
+        this.tasksHash = tasksHash;
+        this.buildingTypesHash = buildingTypesHash;
+    }
+
+    public GetVillageResponse(PacketByteBuf b) {
+        super(b);
+        unchanged = b.readBoolean();
+        rank = b.readEnumConstant(Rank.class);
+        reputation = b.readInt();
+        isVillage = b.readBoolean();
+        ids = b.readCollection(HashSet::new, PacketByteBuf::readString);
+        tasksHash = b.readLong();
+        buildingTypesHash = b.readLong();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        writeData(b);
+        b.writeBoolean(unchanged);
+        b.writeEnumConstant(rank);
+        b.writeInt(reputation);
+        b.writeBoolean(isVillage);
+        b.writeCollection(ids, PacketByteBuf::writeString);
+        b.writeLong(tasksHash);
+        b.writeLong(buildingTypesHash);
     }
 
     @Override
@@ -4,6 +4,7 @@ import net.mca.ClientProxy;
 import net.mca.cobalt.network.Message;
 import net.mca.entity.VillagerEntityMCA;
 import net.mca.resources.data.dialogue.Question;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -18,9 +19,26 @@ public class InteractionDialogueResponse implements Message {
     public final boolean silent;
 
     public InteractionDialogueResponse(Question question, ServerPlayerEntity player, VillagerEntityMCA villager) {
-        this.question = question.getId();
-        this.answers = question.getValidAnswers(player, villager);
-        this.silent = question.isSilent();
+        this(question.getId(), question.getValidAnswers(player, villager), question.isSilent());
+    }
+
+    public InteractionDialogueResponse(String question, List<String> answers, boolean silent) {
+        this.question = question;
+        this.answers = answers;
+        this.silent = silent;
+    }
+
+    public InteractionDialogueResponse(PacketByteBuf b) {
+        question = b.readString();
+        answers = b.readList(PacketByteBuf::readString);
+        silent = b.readBoolean();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeString(question);
+        b.writeCollection(answers, PacketByteBuf::writeString);
+        b.writeBoolean(silent);
     }
 
     @Override
@@ -3,6 +3,7 @@ package net.mca.network.s2c;
 import net.mca.ClientProxy;
 import net.mca.Config;
 import net.mca.cobalt.network.Message;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.io.Serial;
@@ -15,8 +16,23 @@ public class OpenDestinyGuiRequest implements Message {
     public boolean allowTeleportation;
 
     public OpenDestinyGuiRequest(ServerPlayerEntity player) {
-        this.player = player.getId();
-        this.allowTeleportation = Config.getInstance().allowDestinyTeleportation;
+        this(player.getId(), Config.getInstance().allowDestinyTeleportation);
+    }
+
+    public OpenDestinyGuiRequest(int player, boolean allowTeleportation) {
+        this.player = player;
+        this.allowTeleportation = allowTeleportation;
+    }
+
+    public OpenDestinyGuiRequest(PacketByteBuf b) {
+        player = b.readInt();
+        allowTeleportation = b.readBoolean();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeInt(player);
+        b.writeBoolean(allowTeleportation);
     }
 
     @Override
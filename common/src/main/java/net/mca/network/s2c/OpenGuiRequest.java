@@ -3,6 +3,7 @@ package net.mca.network.s2c;
 import net.mca.ClientProxy;
 import net.mca.cobalt.network.Message;
 import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 
@@ -27,6 +28,17 @@ public class OpenGuiRequest implements Message {
         this(gui, 0);
     }
 
+    public OpenGuiRequest(PacketByteBuf b) {
+        gui = b.readInt();
+        villager = b.readInt();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeInt(gui);
+        b.writeInt(villager);
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handleGuiRequest(this);
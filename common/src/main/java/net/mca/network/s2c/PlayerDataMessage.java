@@ -3,6 +3,7 @@ package net.mca.network.s2c;
 import net.mca.ClientProxy;
 import net.mca.network.NbtDataMessage;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 import java.util.UUID;
@@ -18,6 +19,17 @@ public class PlayerDataMessage extends NbtDataMessage {
         this.uuid = uuid;
     }
 
+    public PlayerDataMessage(PacketByteBuf b) {
+        super(b);
+        uuid = b.readUuid();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        writeData(b);
+        b.writeUuid(uuid);
+    }
+
     @Override
     public void receive() {
         ClientProxy.getNetworkHandler().handlePlayerDataMessage(this);
@@ -0,0 +1,59 @@
+package net.mca.network.s2c;
+
+import net.mca.ClientProxy;
+import net.mca.cobalt.network.Message;
+import net.mca.resources.ClothingList;
+import net.mca.resources.HairList;
+import net.mca.resources.Rank;
+import net.mca.resources.data.BuildingType;
+import net.mca.resources.data.tasks.Task;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pushes the datapack driven registries to the client, keyed by their content hash.
+ * Registries the client already received are left out.
+ */
+public class RegistrySyncMessage implements Message {
+    @Serial
+    private static final long serialVersionUID = -2318735019567211804L;
+
+    public final long tasksHash;
+    @Nullable
+    public final Map<Rank, List<Task>> tasks;
+
+    public final long buildingTypesHash;
+    @Nullable
+    public final Map<String, BuildingType> buildingTypes;
+
+    public final long clothingHash;
+    @Nullable
+    public final HashMap<String, ClothingList.Clothing> clothing;
+
+    public final long hairHash;
+    @Nullable
+    public final HashMap<String, HairList.Hair> hair;
+
+    public RegistrySyncMessage(long tasksHash, @Nullable Map<Rank, List<Task>> tasks,
+                               long buildingTypesHash, @Nullable Map<String, BuildingType> buildingTypes,
+                               long clothingHash, @Nullable HashMap<String, ClothingList.Clothing> clothing,
+                               long hairHash, @Nullable HashMap<String, HairList.Hair> hair) {
+        this.tasksHash = tasksHash;
+        this.tasks = tasks;
+        this.buildingTypesHash = buildingTypesHash;
+        this.buildingTypes = buildingTypes;
+        this.clothingHash = clothingHash;
+        this.clothing = clothing;
+        this.hairHash = hairHash;
+        this.hair = hair;
+    }
+
+    @Override
+    public void receive() {
+        ClientProxy.getNetworkHandler().handleRegistrySync(this);
+    }
+}
@@ -2,6 +2,7 @@ package net.mca.network.s2c;
 
 import net.mca.ClientProxy;
 import net.mca.cobalt.network.Message;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.text.Text;
 import net.minecraft.text.TranslatableText;
 
@@ -19,6 +20,17 @@ public class ShowToastRequest implements Message {
         this.message = message;
     }
 
+    public ShowToastRequest(PacketByteBuf b) {
+        title = b.readString();
+        message = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeString(title);
+        b.writeString(message);
+    }
+
     public Text getTitle() {
         return new TranslatableText(title);
     }
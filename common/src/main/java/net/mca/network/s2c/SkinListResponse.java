@@ -2,22 +2,34 @@ package net.mca.network.s2c;
 
 import net.mca.ClientProxy;
 import net.mca.cobalt.network.Message;
-import net.mca.resources.ClothingList;
-import net.mca.resources.HairList;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
-import java.util.HashMap;
 
+/**
+ * Refers to the clothing and hair registries previously sent by {@link RegistrySyncMessage}.
+ */
 public class SkinListResponse implements Message {
     @Serial
     private static final long serialVersionUID = 3523559818338225910L;
 
-    private final HashMap<String, ClothingList.Clothing> clothing;
-    private final HashMap<String, HairList.Hair> hair;
+    private final long clothingHash;
+    private final long hairHash;
 
-    public SkinListResponse(HashMap<String, ClothingList.Clothing> clothing, HashMap<String, HairList.Hair> hair) {
-        this.clothing = clothing;
-        this.hair = hair;
+    public SkinListResponse(long clothingHash, long hairHash) {
+        this.clothingHash = clothingHash;
+        this.hairHash = hairHash;
+    }
+
+    public SkinListResponse(PacketByteBuf b) {
+        clothingHash = b.readLong();
+        hairHash = b.readLong();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeLong(clothingHash);
+        b.writeLong(hairHash);
     }
 
     @Override
@@ -25,11 +37,11 @@ public class SkinListResponse implements Message {
         ClientProxy.getNetworkHandler().handleSkinListResponse(this);
     }
 
-    public HashMap<String, ClothingList.Clothing> getClothing() {
-        return clothing;
+    public long getClothingHash() {
+        return clothingHash;
     }
 
-    public HashMap<String, HairList.Hair> getHair() {
-        return hair;
+    public long getHairHash() {
+        return hairHash;
     }
 }
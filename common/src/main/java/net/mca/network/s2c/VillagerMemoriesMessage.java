@@ -0,0 +1,39 @@
+package net.mca.network.s2c;
+
+import net.mca.ClientProxy;
+import net.mca.network.NbtDataMessage;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
+
+import java.io.Serial;
+
+/**
+ * The memories a villager has of the receiving player.
+ */
+public class VillagerMemoriesMessage extends NbtDataMessage {
+    @Serial
+    private static final long serialVersionUID = 6046152187745339014L;
+
+    public final int entityId;
+
+    public VillagerMemoriesMessage(int entityId, NbtCompound memories) {
+        super(memories);
+        this.entityId = entityId;
+    }
+
+    public VillagerMemoriesMessage(PacketByteBuf b) {
+        super(b);
+        entityId = b.readVarInt();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        writeData(b);
+        b.writeVarInt(entityId);
+    }
+
+    @Override
+    public void receive() {
+        ClientProxy.getNetworkHandler().handleVillagerMemories(this);
+    }
+}
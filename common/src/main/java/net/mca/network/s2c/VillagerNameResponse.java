@@ -2,6 +2,7 @@ package net.mca.network.s2c;
 
 import net.mca.ClientProxy;
 import net.mca.cobalt.network.Message;
+import net.minecraft.network.PacketByteBuf;
 
 import java.io.Serial;
 
@@ -15,6 +16,15 @@ public class VillagerNameResponse implements Message {
         this.name = name;
     }
 
+    public VillagerNameResponse(PacketByteBuf b) {
+        name = b.readString();
+    }
+
+    @Override
+    public void encode(PacketByteBuf b) {
+        b.writeString(name);
+    }
+
     @Override
     public void receive() { ClientProxy.getNetworkHandler().handleVillagerNameResponse(this); }
 
@@ -0,0 +1,153 @@
+package net.mca.resources;
+
+import net.mca.resources.data.BuildingType;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The building types compiled into flat lookups: for every block the group it counts towards per type, and per type the required count per group.
+ * Classifying a building then is a single pass over its blocks, followed by comparing counters.
+ */
+public final class BuildingTypeMatcher {
+    private final BuildingType[] types;
+
+    /**
+     * Per block, the group slot it counts towards for each type, or -1.
+     */
+    private final Map<Identifier, int[]> blockSlots = new HashMap<>();
+
+    /**
+     * Per type, the group slots and the amount of blocks required in them.
+     */
+    private final int[][] requiredSlots;
+    private final int[][] requiredCounts;
+
+    private final int slotCount;
+
+    /**
+     * The first grouped type claiming a block.
+     */
+    private final Map<Identifier, BuildingType> groupedTypes = new HashMap<>();
+
+    BuildingTypeMatcher(Iterable<BuildingType> buildingTypes) {
+        List<BuildingType> list = new ArrayList<>();
+        buildingTypes.forEach(list::add);
+        types = list.toArray(new BuildingType[0]);
+        requiredSlots = new int[types.length][];
+        requiredCounts = new int[types.length][];
+
+        Map<Identifier, Integer> slots = new HashMap<>();
+        for (int t = 0; t < types.length; t++) {
+            BuildingType bt = types[t];
+
+            for (Map.Entry<Identifier, Identifier> entry : bt.getBlockToGroup().entrySet()) {
+                int slot = slots.computeIfAbsent(entry.getValue(), g -> slots.size());
+                int[] perType = blockSlots.computeIfAbsent(entry.getKey(), b -> {
+                    int[] array = new int[types.length];
+                    Arrays.fill(array, -1);
+                    return array;
+                });
+                perType[t] = slot;
+
+                if (bt.grouped()) {
+                    groupedTypes.putIfAbsent(entry.getKey(), bt);
+                }
+            }
+
+            Map<Identifier, Integer> groups = bt.getGroups();
+            requiredSlots[t] = new int[groups.size()];
+            requiredCounts[t] = new int[groups.size()];
+            int i = 0;
+            for (Map.Entry<Identifier, Integer> entry : groups.entrySet()) {
+                requiredSlots[t][i] = slots.computeIfAbsent(entry.getKey(), g -> slots.size());
+                requiredCounts[t][i] = entry.getValue();
+                i++;
+            }
+        }
+        slotCount = slots.size();
+    }
+
+    /**
+     * @return whether any building type is interested in this block
+     */
+    public boolean isRelevant(Identifier block) {
+        return blockSlots.containsKey(block);
+    }
+
+    @Nullable
+    public BuildingType getGroupedType(Identifier block) {
+        return groupedTypes.get(block);
+    }
+
+    /**
+     * Picks the type with the highest priority whose requirements are met, or the forced type if it is met.
+     *
+     * @return the matched type name, or null if no type matched, and whether the result counts as assigned
+     */
+    public Match match(Map<Identifier, List<BlockPos>> blocks, int size, @Nullable String forcedType) {
+        //count the blocks per type and group, -1 marks groups without any entry
+        int[][] counts = new int[types.length][slotCount];
+        for (int[] c : counts) {
+            Arrays.fill(c, -1);
+        }
+        for (Map.Entry<Identifier, List<BlockPos>> entry : blocks.entrySet()) {
+            int[] perType = blockSlots.get(entry.getKey());
+            if (perType != null) {
+                int n = entry.getValue().size();
+                for (int t = 0; t < types.length; t++) {
+                    int slot = perType[t];
+                    if (slot >= 0) {
+                        counts[t][slot] = Math.max(counts[t][slot], 0) + n;
+                    }
+                }
+            }
+        }
+
+        int bestPriority = -1;
+        String type = null;
+        boolean assignedType = false;
+        for (int t = 0; t < types.length; t++) {
+            BuildingType bt = types[t];
+            final boolean checkingForcedType = forcedType != null && forcedType.equalsIgnoreCase(bt.name());
+            if ((checkingForcedType || bt.priority() > bestPriority) && size >= bt.size()) {
+                if (isSatisfied(t, counts[t])) {
+                    bestPriority = bt.priority();
+                    type = bt.name();
+                    assignedType = true;
+
+                    if (checkingForcedType) {
+                        break;
+                    }
+                } else if (checkingForcedType) {
+                    assignedType = false;
+                }
+            }
+        }
+        return new Match(type, assignedType);
+    }
+
+    private boolean isSatisfied(int type, int[] counts) {
+        int[] slots = requiredSlots[type];
+        for (int i = 0; i < slots.length; i++) {
+            int count = counts[slots[i]];
+            if (count < 0 || count < requiredCounts[type][i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static final class Match {
+        @Nullable
+        public final String type;
+        public final boolean assigned;
+
+        Match(@Nullable String type, boolean assigned) {
+            this.type = type;
+            this.assigned = assigned;
+        }
+    }
+}
@@ -24,12 +24,21 @@ public class ClothingList extends JsonDataLoader {
 
     public final HashMap<String, Clothing> clothing = new HashMap<>();
 
+    private long hash;
+
     private static ClothingList INSTANCE;
 
     public static ClothingList getInstance() {
         return INSTANCE;
     }
 
+    /**
+     * Content hash of the currently loaded data, changes on reload.
+     */
+    public long getHash() {
+        return hash;
+    }
+
     public ClothingList() {
         super(Resources.GSON, "skins/clothing");
         INSTANCE = this;
@@ -38,6 +47,7 @@ public class ClothingList extends JsonDataLoader {
     @Override
     protected void apply(Map<Identifier, JsonElement> data, ResourceManager manager, Profiler profiler) {
         clothing.clear();
+        hash = Resources.hash(data);
 
         data.forEach((id, file) -> {
             Gender gender = Gender.byName(id.getPath().split("\\.")[0]);
@@ -18,12 +18,21 @@ public class HairList extends JsonDataLoader {
 
     public final HashMap<String, HairList.Hair> hair = new HashMap<>();
 
+    private long hash;
+
     private static HairList INSTANCE;
 
     public static HairList getInstance() {
         return INSTANCE;
     }
 
+    /**
+     * Content hash of the currently loaded data, changes on reload.
+     */
+    public long getHash() {
+        return hash;
+    }
+
     public HairList() {
         super(Resources.GSON, "skins/hair");
         INSTANCE = this;
@@ -32,6 +41,7 @@ public class HairList extends JsonDataLoader {
     @Override
     protected void apply(Map<Identifier, JsonElement> data, ResourceManager manager, Profiler profiler) {
         hair.clear();
+        hash = Resources.hash(data);
 
         data.forEach((id, file) -> {
             Gender gender = Gender.byName(id.getPath().split("\\.")[0]);
@@ -1,16 +1,22 @@
 package net.mca.resources;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
 import net.mca.MCA;
 import net.mca.entity.interaction.InteractionPredicate;
+import net.minecraft.util.Identifier;
 import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Serial;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 public interface Resources {
     String RESOURCE_PREFIX = "assets/mca/";
@@ -36,6 +42,22 @@ public interface Resources {
         return read(path, (Type)type);
     }
 
+    /**
+     * A content hash of the raw files passed to a JsonDataLoader, used to identify synced registries.
+     */
+    static long hash(Map<Identifier, JsonElement> data) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        data.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(e -> {
+            hasher.putString(e.getKey().toString(), StandardCharsets.UTF_8);
+            hasher.putString(GSON.toJson(e.getValue()), StandardCharsets.UTF_8);
+        });
+        return hasher.hash().asLong();
+    }
+
+    static long hash(String content) {
+        return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).asLong();
+    }
+
     class BrokenResourceException extends Exception {
         @Serial
         private static final long serialVersionUID = -7371322414731622879L;
@@ -25,8 +25,17 @@ public class Tasks extends JsonDataLoader {
         return INSTANCE;
     }
 
+    /**
+     * Content hash of the currently loaded data, changes on reload.
+     */
+    public long getHash() {
+        return hash;
+    }
+
     public final Map<Rank, List<Task>> tasks = new HashMap<>();
 
+    private long hash;
+
     public Tasks() {
         super(Resources.GSON, ID.getPath());
         INSTANCE = this;
@@ -45,6 +54,7 @@ public class Tasks extends JsonDataLoader {
     @Override
     protected void apply(Map<Identifier, JsonElement> data, ResourceManager manager, Profiler profiler) {
         tasks.clear();
+        hash = Resources.hash(data);
         for (Rank r : Rank.values()) {
             tasks.put(r, new LinkedList<>());
         }
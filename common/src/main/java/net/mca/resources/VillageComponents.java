@@ -3,6 +3,7 @@ package net.mca.resources;
 import net.mca.resources.Resources.BrokenResourceException;
 import net.mca.resources.data.BuildingType;
 import net.mca.resources.data.NameSet;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.Iterator;
@@ -12,6 +13,11 @@ import java.util.Random;
 public class VillageComponents implements Iterable<BuildingType> {
     private final Map<String, BuildingType> buildingTypes = new HashMap<>();
 
+    private long buildingTypesHash;
+
+    @Nullable
+    private BuildingTypeMatcher matcher;
+
     private final Map<String, NameSet> namePool = new HashMap<>();
 
     private final Random rng;
@@ -24,6 +30,8 @@ public class VillageComponents implements Iterable<BuildingType> {
         for (BuildingType bt : Resources.read("api/buildingTypes.json", BuildingType[].class)) {
             buildingTypes.put(bt.name(), bt);
         }
+        buildingTypesHash = Resources.hash(Resources.GSON.toJson(buildingTypes));
+        matcher = null;
 
         namePool.put("village", Resources.read("api/names/village.json", NameSet.class));
     }
@@ -37,6 +45,21 @@ public class VillageComponents implements Iterable<BuildingType> {
         return buildingTypes;
     }
 
+    public long getBuildingTypesHash() {
+        return buildingTypesHash;
+    }
+
+    /**
+     * The building types compiled for classification.
+     * Compiled on first use after a reload, since block tags are not bound yet while resources are loading.
+     */
+    public BuildingTypeMatcher getMatcher() {
+        if (matcher == null) {
+            matcher = new BuildingTypeMatcher(this);
+        }
+        return matcher;
+    }
+
     public BuildingType getBuildingType(String type) {
         return buildingTypes.containsKey(type) ? buildingTypes.get(type) : new BuildingType();
     }
@@ -0,0 +1,54 @@
+package net.mca.server;
+
+import net.mca.cobalt.network.NetworkHandler;
+import net.mca.network.s2c.RegistrySyncMessage;
+import net.mca.resources.API;
+import net.mca.resources.ClothingList;
+import net.mca.resources.HairList;
+import net.mca.resources.Tasks;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Tracks which registry hashes each connection has received, so that the registries are only sent on login and after a reload.
+ */
+public class RegistrySync {
+    private static final Map<ServerPlayNetworkHandler, long[]> sent = new WeakHashMap<>();
+
+    private RegistrySync() {
+    }
+
+    /**
+     * Sends all registries the player has not yet received in their current version.
+     * Call before sending a message referring to a registry hash.
+     */
+    public static void sync(ServerPlayerEntity player) {
+        long[] hashes = new long[] {
+                Tasks.getInstance().getHash(),
+                API.getVillagePool().getBuildingTypesHash(),
+                ClothingList.getInstance().getHash(),
+                HairList.getInstance().getHash()
+        };
+
+        long[] known = sent.get(player.networkHandler);
+        boolean[] missing = new boolean[hashes.length];
+        boolean any = false;
+        for (int i = 0; i < hashes.length; i++) {
+            missing[i] = known == null || known[i] != hashes[i];
+            any |= missing[i];
+        }
+
+        if (any) {
+            sent.put(player.networkHandler, hashes);
+            NetworkHandler.sendToPlayer(new RegistrySyncMessage(
+                    hashes[0], missing[0] ? Tasks.getInstance().tasks : null,
+                    hashes[1], missing[1] ? API.getVillagePool().getBuildingTypes() : null,
+                    hashes[2], missing[2] ? ClothingList.getInstance().clothing : null,
+                    hashes[3], missing[3] ? HairList.getInstance().hair : null
+            ), player);
+        }
+    }
+}
@@ -53,9 +53,13 @@ public class ServerInteractionManager {
                 .filter((k) -> procreateMap.getLong(k) < System.currentTimeMillis())
                 .forEach(removals::add);
         removals.forEach(procreateMap::removeLong);
+
+        NetworkHandler.flush();
     }
 
     public void onPlayerJoin(ServerPlayerEntity player) {
+        RegistrySync.sync(player);
+
         PlayerSaveData playerData = PlayerSaveData.get(player);
         if (!playerData.isEntityDataSet()) {
             if (Config.getInstance().launchIntoDestiny) {
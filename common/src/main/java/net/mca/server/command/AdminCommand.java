@@ -8,6 +8,7 @@ import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import net.mca.Config;
+import net.mca.cobalt.network.NetworkHandler;
 import net.mca.entity.EntitiesMCA;
 import net.mca.entity.VillagerEntityMCA;
 import net.mca.entity.ai.relationship.RelationshipState;
@@ -19,6 +20,7 @@ import net.mca.server.world.data.Building;
 import net.mca.server.world.data.PlayerSaveData;
 import net.mca.server.world.data.Village;
 import net.mca.server.world.data.VillageManager;
+import net.minecraft.command.CommandSource;
 import net.minecraft.command.argument.UuidArgumentType;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
@@ -60,11 +62,18 @@ public class AdminCommand {
                 .then(register("resetPlayerData", AdminCommand::resetPlayerData))
                 .then(register("resetMarriage", AdminCommand::resetMarriage))
                 .then(register("listVillages", AdminCommand::listVillages))
-                .then(register("assumeNameDead").then(CommandManager.argument("name", StringArgumentType.string()).executes(AdminCommand::assumeNameDead)))
+                .then(register("assumeNameDead").then(CommandManager.argument("name", StringArgumentType.string())
+                        .suggests((ctx, builder) -> CommandSource.suggestMatching(FamilyTree.get(ctx.getSource().getWorld())
+                                .getNamesWithPrefix(builder.getRemaining(), 50)
+                                .stream()
+                                .map(StringArgumentType::escapeIfRequired), builder))
+                        .executes(AdminCommand::assumeNameDead)))
                 .then(register("assumeUuidDead").then(CommandManager.argument("uuid", UuidArgumentType.uuid()).executes(AdminCommand::assumeUuidDead)))
                 .then(register("removeVillageWithId").then(CommandManager.argument("id", IntegerArgumentType.integer()).executes(AdminCommand::removeVillageWithId)))
                 .then(register("convertVanillaVillagers").then(CommandManager.argument("radius", IntegerArgumentType.integer()).executes(AdminCommand::convertVanillaVillagers)))
                 .then(register("removeVillage").then(CommandManager.argument("name", StringArgumentType.string()).executes(AdminCommand::removeVillage)))
+                .then(register("networkStats", AdminCommand::networkStats))
+                .then(register("buildingQueueStats", AdminCommand::buildingQueueStats))
                 .then(register("buildingProcessingRate").then(CommandManager.argument("cooldown", IntegerArgumentType.integer()).executes(AdminCommand::buildingProcessingRate)))
                 .requires((serverCommandSource) -> serverCommandSource.hasPermissionLevel(2))
         );
@@ -162,8 +171,7 @@ public class AdminCommand {
         VillageManager villages = VillageManager.get(ctx.getSource().getWorld());
         Optional<Village> village = villages.findNearestVillage(e);
 
-        Optional<Building> building = village.flatMap(v -> v.getBuildings().values().stream().filter((b) ->
-                b.containsPos(e.getBlockPos())).findAny());
+        Optional<Building> building = village.flatMap(v -> v.getBuildingAt(e.getBlockPos()));
         if (building.isPresent()) {
             if (building.get().getType().equals(type)) {
                 building.get().determineType();
@@ -206,6 +214,19 @@ public class AdminCommand {
         return 0;
     }
 
+    private static int networkStats(CommandContext<ServerCommandSource> ctx) {
+        long messages = NetworkHandler.getBatchedMessages();
+        long packets = NetworkHandler.getBatchedPackets();
+        success(String.format("%d batched message(s) sent in %d packet(s), %d packet(s) saved", messages, packets, messages - packets), ctx);
+        return 0;
+    }
+
+    private static int buildingQueueStats(CommandContext<ServerCommandSource> ctx) {
+        VillageManager manager = VillageManager.get(ctx.getSource().getWorld());
+        success(String.format("%d building(s) queued, processing %.1f per second", manager.getBuildingQueueSize(), manager.getBuildingDrainRate()), ctx);
+        return 0;
+    }
+
     private static int resetPlayerData(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         ServerPlayerEntity player = ctx.getSource().getPlayer();
         PlayerSaveData playerData = PlayerSaveData.get(player);
@@ -335,6 +356,8 @@ public class AdminCommand {
         sendMessage(player, WHITE + " /mca-admin removeVillage id" + GOLD + " - Removed a village with given id.");
 
         sendMessage(player, WHITE + " /mca-admin convertVanillaVillagers radius" + GOLD + " - Convert vanilla villagers in the given radius");
+        sendMessage(player, WHITE + " /mca-admin networkStats" + GOLD + " - Shows how many packets message batching saved.");
+        sendMessage(player, WHITE + " /mca-admin buildingQueueStats" + GOLD + " - Shows the length and drain rate of the building queue.");
 
         sendMessage(player, WHITE + " /mca-admin incrementHearts " + GOLD + " - Increase hearts by 10.");
         sendMessage(player, WHITE + " /mca-admin decrementHearts " + GOLD + " - Decrease hearts by 10.");
@@ -0,0 +1,16 @@
+package net.mca.server.world.data;
+
+import net.minecraft.world.PersistentState;
+
+import java.io.File;
+
+/**
+ * A persistent state written by the {@link SaveCoordinator} instead of on the server thread.
+ * The NBT returned by {@link #writeNbt} is written later, it must not share tags which are modified afterwards.
+ */
+public abstract class AsyncPersistentState extends PersistentState {
+    @Override
+    public void save(File file) {
+        SaveCoordinator.save(this, file);
+    }
+}
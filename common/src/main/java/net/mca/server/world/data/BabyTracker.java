@@ -14,14 +14,13 @@ import net.minecraft.nbt.NbtList;
 import net.minecraft.nbt.NbtString;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.world.PersistentState;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-public class BabyTracker extends PersistentState {
+public class BabyTracker extends AsyncPersistentState {
     public static BabyTracker get(ServerWorld world) {
         return WorldUtils.loadData(world.getServer().getOverworld(), nbt -> new BabyTracker(world, nbt), BabyTracker::new, "mca_baby_tracker");
     }
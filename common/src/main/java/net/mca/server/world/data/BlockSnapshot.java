@@ -0,0 +1,123 @@
+package net.mca.server.world.data;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.PalettedContainer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Copies of the block palettes of some chunk sections, readable from any thread.
+ * Sections are captured on the server thread; reads from sections which have not been captured return air and are remembered,
+ * so the caller can capture them and try again.
+ */
+class BlockSnapshot implements BlockView {
+    private final Long2ObjectMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+    private final LongSet missing = new LongOpenHashSet();
+
+    private final int bottomY;
+    private final int height;
+
+    BlockSnapshot(World world) {
+        bottomY = world.getBottomY();
+        height = world.getHeight();
+    }
+
+    /**
+     * Captures the sections around the given position, enough for the flood fill of a small building.
+     */
+    public void captureAround(World world, BlockPos pos) {
+        int cx = ChunkSectionPos.getSectionCoord(pos.getX());
+        int cy = ChunkSectionPos.getSectionCoord(pos.getY());
+        int cz = ChunkSectionPos.getSectionCoord(pos.getZ());
+        for (int x = cx - 1; x <= cx + 1; x++) {
+            for (int z = cz - 1; z <= cz + 1; z++) {
+                for (int y = cy - 1; y <= cy + 2; y++) {
+                    capture(world, ChunkSectionPos.asLong(x, y, z));
+                }
+            }
+        }
+    }
+
+    /**
+     * (Re)captures the given section, must be called on the server thread.
+     */
+    public void capture(World world, long section) {
+        int y = ChunkSectionPos.unpackY(section);
+        if (y < world.getBottomSectionCoord() || y >= world.getTopSectionCoord()) {
+            return;
+        }
+
+        Chunk chunk = world.getChunk(ChunkSectionPos.unpackX(section), ChunkSectionPos.unpackZ(section));
+        sections.put(section, chunk.getSection(world.sectionCoordToIndex(y)).getBlockStateContainer().copy());
+    }
+
+    public static long getSection(BlockPos pos) {
+        return ChunkSectionPos.asLong(
+                ChunkSectionPos.getSectionCoord(pos.getX()),
+                ChunkSectionPos.getSectionCoord(pos.getY()),
+                ChunkSectionPos.getSectionCoord(pos.getZ())
+        );
+    }
+
+    public boolean contains(long section) {
+        return sections.containsKey(section);
+    }
+
+    /**
+     * Sections which have been read but not captured since the last {@link #clearMissing()}.
+     */
+    public LongSet getMissing() {
+        return missing;
+    }
+
+    public void clearMissing() {
+        missing.clear();
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        if (isOutOfHeightLimit(pos)) {
+            return Blocks.VOID_AIR.getDefaultState();
+        }
+
+        long section = getSection(pos);
+        PalettedContainer<BlockState> container = sections.get(section);
+        if (container == null) {
+            missing.add(section);
+            return Blocks.AIR.getDefaultState();
+        }
+        return container.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getBottomY() {
+        return bottomY;
+    }
+}
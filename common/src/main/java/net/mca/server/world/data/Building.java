@@ -1,7 +1,9 @@
 package net.mca.server.world.data;
 
+import it.unimi.dsi.fastutil.longs.*;
 import net.mca.Config;
 import net.mca.resources.API;
+import net.mca.resources.BuildingTypeMatcher;
 import net.mca.resources.data.BuildingType;
 import net.mca.util.NbtHelper;
 import net.minecraft.block.BedBlock;
@@ -20,10 +22,12 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.util.registry.Registry;
+import net.minecraft.world.BlockView;
 import net.minecraft.world.World;
 import net.minecraft.world.poi.PointOfInterest;
 import net.minecraft.world.poi.PointOfInterestStorage;
 import net.minecraft.world.poi.PointOfInterestType;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -35,7 +39,6 @@ import static net.minecraft.tag.BlockTags.LEAVES;
 public class Building implements Serializable, Iterable<UUID> {
     @Serial
     private static final long serialVersionUID = -1106627083469687307L;
-    public static final long SCAN_COOLDOWN = 4800;
     private static final Direction[] directions = {
             Direction.UP, Direction.DOWN, Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST
     };
@@ -53,6 +56,13 @@ public class Building implements Serializable, Iterable<UUID> {
     private int id;
     private boolean strictScan;
     private long lastScan;
+    /**
+     * Starts fresh for every instance, revisions are not persisted and a restarted server counts from zero again.
+     */
+    private long revision = Village.nextRevision();
+
+    @Nullable
+    private transient Village village;
 
     public Building() {
     }
@@ -190,13 +200,23 @@ public class Building implements Serializable, Iterable<UUID> {
     public void addResident(Entity e) {
         if (!residents.containsKey(e.getUuid())) {
             residents.put(e.getUuid(), e.getName().getString());
+            markChanged();
         }
     }
 
     public void updateResident(Entity e) {
         if (residents.containsKey(e.getUuid())) {
             residents.put(e.getUuid(), e.getName().getString());
+            markChanged();
+        }
+    }
+
+    public boolean removeResident(UUID id) {
+        if (residents.remove(id) != null) {
+            markChanged();
+            return true;
         }
+        return false;
     }
 
     public BlockPos getPos0() {
@@ -229,6 +249,7 @@ public class Building implements Serializable, Iterable<UUID> {
                     .toList();
             positions.getValue().removeAll(mask);
         }
+        markChanged();
     }
 
     public Stream<BlockPos> getBlockPosStream() {
@@ -253,6 +274,7 @@ public class Building implements Serializable, Iterable<UUID> {
             pos1X = pos0X;
             pos1Y = pos0Y;
             pos1Z = pos0Z;
+            markChanged();
         }
     }
 
@@ -268,105 +290,232 @@ public class Building implements Serializable, Iterable<UUID> {
     }
 
     public validationResult validateBuilding(World world, Set<BlockPos> blocked) {
+        return apply(prepareScan(blocked).run(world), world.getTime());
+    }
+
+    /**
+     * Copies everything the flood fill needs from this building, the returned scan can then be run on any thread.
+     */
+    public Scan prepareScan(Set<BlockPos> blocked) {
+        return new Scan(this, blocked);
+    }
+
+    /**
+     * Takes over the outcome of a finished scan.
+     */
+    public validationResult apply(Scan scan, long time) {
         //clear old building
         blocks.clear();
         size = 0;
+        markChanged();
 
-        setLastScan(world.getTime());
+        setLastScan(time);
+
+        if (scan.result != validationResult.SUCCESS) {
+            return scan.result;
+        }
+
+        scan.blocks.forEach((id, positions) -> blocks.put(id, new ArrayList<>(positions)));
+
+        //adjust building dimensions
+        pos0X = scan.pos0X;
+        pos0Y = scan.pos0Y;
+        pos0Z = scan.pos0Z;
+
+        pos1X = scan.pos1X;
+        pos1Y = scan.pos1Y;
+        pos1Z = scan.pos1Z;
+
+        size = scan.size;
+        markChanged();
+
+        //determine type
+        if (type.equals("blocked")) {
+            return validationResult.INVALID_TYPE;
+        }
+        if (scan.matchedType != null) {
+            type = scan.matchedType;
+        }
+        markChanged();
+        return scan.assignedType ? validationResult.SUCCESS : validationResult.INVALID_TYPE;
+    }
+
+    public boolean determineType() {
+        BuildingTypeMatcher.Match match = API.getVillagePool().getMatcher().match(blocks, size, forcedType);
+        if (match.type != null) {
+            type = match.type;
+        }
+        markChanged();
+        return match.assigned;
+    }
+
+    /**
+     * A flood fill and type classification of a building, detached from the building itself.
+     * Only reads the given {@link BlockView}, so it may run off the server thread against a {@link BlockSnapshot}.
+     */
+    public static final class Scan {
+        private static final byte UNKNOWN = 0;
+        private static final byte NO_ROOF = 1;
+        private static final byte ROOF = 2;
+
+        private static final ThreadLocal<FillContext> FILL_CONTEXT = ThreadLocal.withInitial(FillContext::new);
+
+        private final BlockPos source;
+        private final boolean strictScan;
+        private final String type;
+        @Nullable
+        private final String forcedType;
+        private final Set<BlockPos> blocked;
+        private final BuildingTypeMatcher matcher;
+
+        private validationResult result;
+        private final Map<Identifier, List<BlockPos>> blocks = new HashMap<>();
+        private int size;
+        private int pos0X, pos0Y, pos0Z;
+        private int pos1X, pos1Y, pos1Z;
+        @Nullable
+        private String matchedType;
+        private boolean assignedType;
+
+        private Scan(Building building, Set<BlockPos> blocked) {
+            this.source = building.getSourceBlock();
+            this.strictScan = building.strictScan;
+            this.type = building.type;
+            this.forcedType = building.forcedType;
+            this.blocked = blocked;
+            this.matcher = API.getVillagePool().getMatcher();
+        }
+
+        public BlockPos getSource() {
+            return source;
+        }
+
+        /**
+         * Whether this scan has a result and was run with the same inputs the building would use now.
+         */
+        public boolean matches(Building building, Set<BlockPos> blocked) {
+            return result != null
+                    && source.equals(building.getSourceBlock())
+                    && strictScan == building.strictScan
+                    && type.equals(building.type)
+                    && Objects.equals(forcedType, building.forcedType)
+                    && this.blocked.equals(blocked);
+        }
+
+        /**
+         * Drops the result, e.g. because the blocks it was computed from are outdated.
+         */
+        public void discard() {
+            result = null;
+        }
+
+        public Scan run(BlockView world) {
+            blocks.clear();
+            size = 0;
+            matchedType = null;
+            assignedType = false;
+            result = fill(world);
+            return this;
+        }
 
-        //temp data for flood fill
-        Set<BlockPos> done = new HashSet<>();
-        LinkedList<BlockPos> queue = new LinkedList<>();
-
-        //start point
-        BlockPos center = getSourceBlock();
-        queue.add(center);
-        done.add(center);
-
-        //const
-        final int minSize = Config.getInstance().minBuildingSize;
-        final int maxSize = Config.getInstance().maxBuildingSize;
-        final int maxRadius = Config.getInstance().maxBuildingRadius;
-
-        //fill the building
-        int scanSize = 0;
-        int interiorSize = 0;
-        boolean hasDoor = false;
-        Map<BlockPos, Boolean> roofCache = new HashMap<>();
-        while (!queue.isEmpty() && scanSize < maxSize) {
-            BlockPos p = queue.removeLast();
-
-            //this block is marked as blocked, indicating an overlap
-            if (blocked.contains(p) && scanSize > 0) {
-                return validationResult.OVERLAP;
+        private validationResult fill(BlockView world) {
+            //temp data for flood fill, reused between scans on the same thread
+            FillContext context = FILL_CONTEXT.get();
+            context.clear();
+            LongSet done = context.done;
+            LongArrayList queue = context.queue;
+            Long2ByteMap roofCache = context.roofCache;
+            BlockPos.Mutable mutable = context.mutable;
+
+            LongSet blocked = context.blocked;
+            for (BlockPos p : this.blocked) {
+                blocked.add(p.asLong());
             }
 
-            //as long the max radius is not reached
-            if (p.getManhattanDistance(center) < maxRadius) {
-                for (Direction d : directions) {
-                    BlockPos n = p.offset(d);
-
-                    //and the block is not already checked
-                    if (!done.contains(n)) {
-                        BlockState state = world.getBlockState(n);
-
-                        //mark it
-                        done.add(n);
-
-                        //if not solid, continue
-                        if (state.isAir()) {
-                            if (!roofCache.containsKey(n)) {
-                                BlockPos n2 = n;
-                                int maxScanHeight = 16;
-                                for (int i = 0; i < maxScanHeight; i++) {
-                                    roofCache.put(n2, false);
-                                    n2 = n2.up();
-
-                                    //found valid block
-                                    BlockState block = world.getBlockState(n2);
-                                    if (!block.isAir() || roofCache.containsKey(n2)) {
-                                        if (!(roofCache.containsKey(n2) && !roofCache.get(n2)) && !block.isIn(LEAVES)) {
-                                            for (int i2 = i; i2 >= 0; i2--) {
-                                                n2 = n2.down();
-                                                roofCache.put(n2, true);
+            //start point
+            BlockPos center = source;
+            queue.add(center.asLong());
+            done.add(center.asLong());
+
+            //const
+            final int minSize = Config.getInstance().minBuildingSize;
+            final int maxSize = Config.getInstance().maxBuildingSize;
+            final int maxRadius = Config.getInstance().maxBuildingRadius;
+
+            //fill the building
+            int scanSize = 0;
+            int interiorSize = 0;
+            boolean hasDoor = false;
+            while (!queue.isEmpty() && scanSize < maxSize) {
+                long p = queue.removeLong(queue.size() - 1);
+
+                //this block is marked as blocked, indicating an overlap
+                if (blocked.contains(p) && scanSize > 0) {
+                    return validationResult.OVERLAP;
+                }
+
+                //as long the max radius is not reached
+                int distance = Math.abs(BlockPos.unpackLongX(p) - center.getX())
+                        + Math.abs(BlockPos.unpackLongY(p) - center.getY())
+                        + Math.abs(BlockPos.unpackLongZ(p) - center.getZ());
+                if (distance < maxRadius) {
+                    for (Direction d : directions) {
+                        long n = BlockPos.offset(p, d);
+
+                        //and the block is not already checked
+                        if (done.add(n)) {
+                            BlockState state = world.getBlockState(mutable.set(n));
+
+                            //if not solid, continue
+                            if (state.isAir()) {
+                                if (!roofCache.containsKey(n)) {
+                                    long n2 = n;
+                                    int maxScanHeight = 16;
+                                    for (int i = 0; i < maxScanHeight; i++) {
+                                        roofCache.put(n2, NO_ROOF);
+                                        n2 = BlockPos.add(n2, 0, 1, 0);
+
+                                        //found valid block
+                                        byte cached = roofCache.get(n2);
+                                        BlockState block = world.getBlockState(mutable.set(n2));
+                                        if (!block.isAir() || cached != UNKNOWN) {
+                                            if (cached != NO_ROOF && !block.isIn(LEAVES)) {
+                                                for (int i2 = i; i2 >= 0; i2--) {
+                                                    n2 = BlockPos.add(n2, 0, -1, 0);
+                                                    roofCache.put(n2, ROOF);
+                                                }
                                             }
+                                            break;
                                         }
-                                        break;
                                     }
                                 }
+                                if (roofCache.get(n) == ROOF) {
+                                    interiorSize++;
+                                    queue.add(n);
+                                }
+                            } else if (state.getBlock() instanceof DoorBlock) {
+                                //skip door and start a new room
+                                if (!strictScan) {
+                                    queue.add(n);
+                                }
+                                hasDoor = true;
                             }
-                            if (roofCache.get(n)) {
-                                interiorSize++;
-                                queue.add(n);
-                            }
-                        } else if (state.getBlock() instanceof DoorBlock) {
-                            //skip door and start a new room
-                            if (!strictScan) {
-                                queue.add(n);
-                            }
-                            hasDoor = true;
                         }
                     }
+                } else {
+                    return validationResult.SIZE_LIMIT;
                 }
-            } else {
-                return validationResult.SIZE_LIMIT;
-            }
 
-            scanSize++;
-        }
+                scanSize++;
+            }
 
-        // min size is 32 by default, which equals an 8 block big cube with 6 times 4 sides
-        if (!queue.isEmpty()) {
-            return validationResult.BLOCK_LIMIT;
-        } else if (done.size() <= minSize) {
-            return validationResult.TOO_SMALL;
-        } else if (!hasDoor) {
-            return validationResult.NO_DOOR;
-        } else {
-            //fetch all interesting block types
-            Set<Identifier> blockTypes = new HashSet<>();
-            for (BuildingType bt : API.getVillagePool()) {
-                blockTypes.addAll(bt.getBlockToGroup().keySet());
+            // min size is 32 by default, which equals an 8 block big cube with 6 times 4 sides
+            if (!queue.isEmpty()) {
+                return validationResult.BLOCK_LIMIT;
+            } else if (done.size() <= minSize) {
+                return validationResult.TOO_SMALL;
+            } else if (!hasDoor) {
+                return validationResult.NO_DOOR;
             }
 
             //dimensions
@@ -377,30 +526,28 @@ public class Building implements Serializable, Iterable<UUID> {
             int ey = sy;
             int ez = sz;
 
-            for (BlockPos p : done) {
-                sx = Math.min(sx, p.getX());
-                sy = Math.min(sy, p.getY());
-                sz = Math.min(sz, p.getZ());
-                ex = Math.max(ex, p.getX());
-                ey = Math.max(ey, p.getY());
-                ez = Math.max(ez, p.getZ());
+            LongIterator iterator = done.iterator();
+            while (iterator.hasNext()) {
+                mutable.set(iterator.nextLong());
+                sx = Math.min(sx, mutable.getX());
+                sy = Math.min(sy, mutable.getY());
+                sz = Math.min(sz, mutable.getZ());
+                ex = Math.max(ex, mutable.getX());
+                ey = Math.max(ey, mutable.getY());
+                ez = Math.max(ez, mutable.getZ());
 
                 //count blocks types
-                BlockState blockState = world.getBlockState(p);
+                BlockState blockState = world.getBlockState(mutable);
                 Block block = blockState.getBlock();
-                if (blockTypes.contains(Registry.BLOCK.getId(block))) {
-                    if (block instanceof BedBlock) {
-                        // TODO: look for better solution for 7.4.0
-                        if (blockState.get(BedBlock.PART) == BedPart.HEAD) {
-                            addBlock(block, p);
-                        }
-                    } else {
-                        addBlock(block, p);
+                Identifier id = Registry.BLOCK.getId(block);
+                if (matcher.isRelevant(id)) {
+                    // TODO: look for better solution for 7.4.0
+                    if (!(block instanceof BedBlock) || blockState.get(BedBlock.PART) == BedPart.HEAD) {
+                        blocks.computeIfAbsent(id, i -> new ArrayList<>()).add(mutable.toImmutable());
                     }
                 }
             }
 
-            //adjust building dimensions
             pos0X = sx;
             pos0Y = sy;
             pos0Z = sz;
@@ -412,39 +559,43 @@ public class Building implements Serializable, Iterable<UUID> {
             size = interiorSize;
 
             //determine type
-            boolean assignedType = false;
             if (!type.equals("blocked")) {
-                assignedType = determineType();
+                BuildingTypeMatcher.Match match = matcher.match(blocks, size, forcedType);
+                matchedType = match.type;
+                assignedType = match.assigned;
             }
 
-            return assignedType ? validationResult.SUCCESS : validationResult.INVALID_TYPE;
+            return validationResult.SUCCESS;
         }
-    }
 
-    public boolean determineType() {
-        int bestPriority = -1;
-        boolean assignedType = false;
-
-        for (BuildingType bt : API.getVillagePool()) {
-            final boolean checkingForcedType = forcedType != null && forcedType.equalsIgnoreCase(bt.name());
-            if ((checkingForcedType || bt.priority() > bestPriority) && size >= bt.size()) {
-                //get an overview of the satisfied blocks
-                Map<Identifier, List<BlockPos>> available = bt.getGroups(blocks);
-                boolean valid = bt.getGroups().entrySet().stream().noneMatch(e -> !available.containsKey(e.getKey()) || available.get(e.getKey()).size() < e.getValue());
-                if (valid) {
-                    bestPriority = bt.priority();
-                    type = bt.name();
-                    assignedType = true;
-
-                    if (checkingForcedType) {
-                        break;
-                    }
-                } else if (checkingForcedType) {
-                    assignedType = false;
-                }
+        /**
+         * The working sets of a flood fill, positions are packed with {@link BlockPos#asLong()}.
+         */
+        private static final class FillContext {
+            private static final int MAX_RETAINED_SIZE = 1 << 16;
+
+            final LongOpenHashSet done = new LongOpenHashSet();
+            final LongArrayList queue = new LongArrayList();
+            final Long2ByteOpenHashMap roofCache = new Long2ByteOpenHashMap();
+            final LongOpenHashSet blocked = new LongOpenHashSet();
+            final BlockPos.Mutable mutable = new BlockPos.Mutable();
+
+            FillContext() {
+                roofCache.defaultReturnValue(UNKNOWN);
+            }
+
+            void clear() {
+                done.clear();
+                queue.clear();
+                roofCache.clear();
+                blocked.clear();
+
+                //don't hold on to the tables of an exceptionally large scan
+                done.trim(MAX_RETAINED_SIZE);
+                queue.trim(MAX_RETAINED_SIZE);
+                roofCache.trim(MAX_RETAINED_SIZE);
             }
         }
-        return assignedType;
     }
 
     public String getType() {
@@ -461,9 +612,13 @@ public class Building implements Serializable, Iterable<UUID> {
 
     public void setType(String type) {
         this.type = type;
+        markChanged();
     }
 
-    public void setForcedType(String type) { this.forcedType = type; }
+    public void setForcedType(String type) {
+        this.forcedType = type;
+        markChanged();
+    }
 
     public Map<UUID, String> getResidents() {
         return residents;
@@ -488,21 +643,31 @@ public class Building implements Serializable, Iterable<UUID> {
             blocks.put(key, new ArrayList<>());
         }
         blocks.get(key).add(p);
+        markChanged();
     }
 
     public void removeBlock(Block block, BlockPos p) {
         Identifier key = Registry.BLOCK.getId(block);
-        if (blocks.containsKey(key)) {
-            blocks.get(key).remove(p);
+        if (blocks.containsKey(key) && blocks.get(key).remove(p)) {
+            markChanged();
         }
     }
 
+    /**
+     * @return whether the given block at this position is part of this building
+     */
+    public boolean hasBlock(Block block, BlockPos p) {
+        List<BlockPos> positions = blocks.get(Registry.BLOCK.getId(block));
+        return positions != null && positions.contains(p);
+    }
+
     public int getId() {
         return id;
     }
 
     public void setId(int id) {
         this.id = id;
+        markChanged();
     }
 
     public boolean overlaps(Building b) {
@@ -540,4 +705,27 @@ public class Building implements Serializable, Iterable<UUID> {
     public void setLastScan(long lastScan) {
         this.lastScan = lastScan;
     }
+
+    /**
+     * Revision of the last change, see {@link Village#getRevision()}.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    @Nullable
+    Village getVillage() {
+        return village;
+    }
+
+    void setVillage(@Nullable Village village) {
+        this.village = village;
+    }
+
+    private void markChanged() {
+        revision = Village.nextRevision();
+        if (village != null) {
+            village.onBuildingChanged(this);
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package net.mca.server.world.data;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3i;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * Secondary lookups over the buildings of one village: by type, by a coarse horizontal grid, by free beds and the summed residents and beds.
+ * Buildings report their changes to the village, they are re-indexed lazily on the next query.
+ */
+class BuildingIndex {
+    private static final int CELL_SHIFT = 4;
+
+    private final Map<String, Set<Building>> byType = new HashMap<>();
+    private final Long2ObjectMap<List<Building>> cells = new Long2ObjectOpenHashMap<>();
+    private final Set<Building> withFreeSpace = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * What each building has been indexed with, to subtract it again once it changed.
+     */
+    private final Map<Building, Entry> indexed = new IdentityHashMap<>();
+    private final Set<Building> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private int residents;
+    private int beds;
+
+    public void add(Building building) {
+        changed.add(building);
+    }
+
+    public void markChanged(Building building) {
+        if (indexed.containsKey(building)) {
+            changed.add(building);
+        }
+    }
+
+    public void remove(Building building) {
+        changed.remove(building);
+        Entry entry = indexed.remove(building);
+        if (entry == null) {
+            return;
+        }
+
+        Set<Building> set = byType.get(entry.type);
+        if (set != null) {
+            set.remove(building);
+            if (set.isEmpty()) {
+                byType.remove(entry.type);
+            }
+        }
+
+        entry.forEachCell(cell -> {
+            List<Building> list = cells.get(cell);
+            if (list != null) {
+                list.remove(building);
+                if (list.isEmpty()) {
+                    cells.remove(cell);
+                }
+            }
+        });
+
+        withFreeSpace.remove(building);
+        residents -= entry.residents;
+        beds -= entry.beds;
+    }
+
+    private void refresh() {
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        List<Building> buildings = new ArrayList<>(changed);
+        changed.clear();
+        for (Building building : buildings) {
+            remove(building);
+
+            Entry entry = new Entry(building);
+            indexed.put(building, entry);
+            byType.computeIfAbsent(entry.type, t -> Collections.newSetFromMap(new IdentityHashMap<>())).add(building);
+            entry.forEachCell(cell -> cells.computeIfAbsent(cell, c -> new ArrayList<>(1)).add(building));
+            if (entry.beds > entry.residents) {
+                withFreeSpace.add(building);
+            }
+            residents += entry.residents;
+            beds += entry.beds;
+        }
+    }
+
+    public Set<Building> getByType(String type) {
+        refresh();
+        return byType.getOrDefault(type, Collections.emptySet());
+    }
+
+    public boolean hasType(String type) {
+        refresh();
+        return byType.containsKey(type);
+    }
+
+    /**
+     * Buildings whose grid cell covers the given position, callers still have to check the actual bounds.
+     */
+    public List<Building> query(Vec3i pos) {
+        refresh();
+        return cells.getOrDefault(ChunkPos.toLong(pos.getX() >> CELL_SHIFT, pos.getZ() >> CELL_SHIFT), Collections.emptyList());
+    }
+
+    public Set<Building> getWithFreeSpace() {
+        refresh();
+        return withFreeSpace;
+    }
+
+    public int getResidents() {
+        refresh();
+        return residents;
+    }
+
+    public int getBeds() {
+        refresh();
+        return beds;
+    }
+
+    private static final class Entry {
+        final String type;
+        final int residents;
+        final int beds;
+        final int x0, z0, x1, z1;
+
+        Entry(Building building) {
+            type = building.getType();
+            residents = building.getResidents().size();
+            beds = building.getBedCount();
+            x0 = building.getPos0().getX() >> CELL_SHIFT;
+            z0 = building.getPos0().getZ() >> CELL_SHIFT;
+            x1 = building.getPos1().getX() >> CELL_SHIFT;
+            z1 = building.getPos1().getZ() >> CELL_SHIFT;
+        }
+
+        void forEachCell(LongConsumer consumer) {
+            for (int x = x0; x <= x1; x++) {
+                for (int z = z0; z <= z1; z++) {
+                    consumer.accept(ChunkPos.toLong(x, z));
+                }
+            }
+        }
+    }
+}
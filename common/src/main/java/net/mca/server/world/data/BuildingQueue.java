@@ -0,0 +1,130 @@
+package net.mca.server.world.data;
+
+import it.unimi.dsi.fastutil.longs.Long2LongLinkedOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * The positions waiting to be processed as buildings, without duplicates and ordered by priority, then by report time.
+ * Also remembers what has been reported recently, so villagers don't report the same points of interest over and over.
+ */
+class BuildingQueue {
+    private static final long REPORT_EXPIRY = 24000;
+    private static final int MAX_REPORTED = 1 << 16;
+    private static final int RATE_WINDOW = 100;
+
+    public enum Priority {
+        PLAYER,
+        VILLAGE,
+        WILDERNESS
+    }
+
+    @SuppressWarnings("unchecked")
+    private final LinkedHashSet<BlockPos>[] queues = new LinkedHashSet[Priority.values().length];
+    private final Map<BlockPos, Priority> queued = new HashMap<>();
+
+    /**
+     * Reported positions, packed with {@link BlockPos#asLong()}, and the time they have been reported at, oldest first.
+     */
+    private final Long2LongLinkedOpenHashMap reported = new Long2LongLinkedOpenHashMap();
+
+    private long windowStart;
+    private int windowCount;
+    private float drainRate;
+
+    BuildingQueue() {
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new LinkedHashSet<>();
+        }
+    }
+
+    /**
+     * Queues the position, or moves it up if it is already queued with a lower priority.
+     */
+    public void add(BlockPos pos, Priority priority) {
+        Priority old = queued.get(pos);
+        if (old != null) {
+            if (old.ordinal() <= priority.ordinal()) {
+                return;
+            }
+            queues[old.ordinal()].remove(pos);
+        }
+        queued.put(pos, priority);
+        queues[priority.ordinal()].add(pos);
+    }
+
+    @Nullable
+    public Priority peekPriority() {
+        for (Priority priority : Priority.values()) {
+            if (!queues[priority.ordinal()].isEmpty()) {
+                return priority;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    public BlockPos poll() {
+        for (LinkedHashSet<BlockPos> queue : queues) {
+            Iterator<BlockPos> iterator = queue.iterator();
+            if (iterator.hasNext()) {
+                BlockPos pos = iterator.next();
+                iterator.remove();
+                queued.remove(pos);
+                windowCount++;
+                return pos;
+            }
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return queued.isEmpty();
+    }
+
+    public int size() {
+        return queued.size();
+    }
+
+    public void markReported(BlockPos pos, long time) {
+        reported.putAndMoveToLast(pos.asLong(), time);
+        while (reported.size() > MAX_REPORTED) {
+            reported.removeFirstLong();
+        }
+    }
+
+    public boolean isReported(BlockPos pos) {
+        return reported.containsKey(pos.asLong());
+    }
+
+    public void clearReported() {
+        reported.clear();
+    }
+
+    public void tick(long time) {
+        //forget old reports
+        while (!reported.isEmpty() && time - reported.getLong(reported.firstLongKey()) > REPORT_EXPIRY) {
+            reported.removeFirstLong();
+        }
+
+        if (windowStart == 0) {
+            windowStart = time;
+        } else if (time - windowStart >= RATE_WINDOW) {
+            drainRate = windowCount * 20.0f / (time - windowStart);
+            windowStart = time;
+            windowCount = 0;
+        }
+    }
+
+    /**
+     * @return the processed positions per second, averaged over the last few seconds
+     */
+    public float getDrainRate() {
+        return drainRate;
+    }
+}
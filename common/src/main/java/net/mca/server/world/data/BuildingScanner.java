@@ -0,0 +1,103 @@
+package net.mca.server.world.data;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.mca.MCA;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs building flood fills on the worker pool against a {@link BlockSnapshot}.
+ * The snapshot starts small and grows by the sections a fill ran into, sections changed in the meantime are captured again.
+ * Scans are only handed back once they ran against a complete and up-to-date snapshot, otherwise they are discarded.
+ */
+class BuildingScanner {
+    private static final int MAX_ROUNDS = 8;
+
+    private final ServerWorld world;
+    private final List<Job> running = new LinkedList<>();
+
+    BuildingScanner(ServerWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * Runs the given scans, the returned future completes on the server thread.
+     */
+    public CompletableFuture<Void> scan(Collection<Building.Scan> scans) {
+        Job job = new Job(scans);
+        scans.forEach(s -> job.snapshot.captureAround(world, s.getSource()));
+        running.add(job);
+        job.submit();
+        return job.future;
+    }
+
+    public void onBlockChanged(BlockPos pos) {
+        if (running.isEmpty()) {
+            return;
+        }
+
+        long section = BlockSnapshot.getSection(pos);
+        for (Job job : running) {
+            if (job.snapshot.contains(section)) {
+                job.changed.add(section);
+            }
+        }
+    }
+
+    private class Job {
+        final Collection<Building.Scan> scans;
+        final BlockSnapshot snapshot = new BlockSnapshot(world);
+        final LongSet changed = new LongOpenHashSet();
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        int rounds;
+
+        Job(Collection<Building.Scan> scans) {
+            this.scans = scans;
+        }
+
+        void submit() {
+            changed.clear();
+            snapshot.clearMissing();
+            CompletableFuture.runAsync(() -> scans.forEach(s -> s.run(snapshot)), Util.getMainWorkerExecutor())
+                    .whenCompleteAsync((v, e) -> finish(e), world.getServer());
+        }
+
+        void finish(Throwable e) {
+            if (e != null) {
+                MCA.LOGGER.error("Building scan failed", e);
+                done(false);
+                return;
+            }
+
+            LongSet outdated = new LongOpenHashSet(snapshot.getMissing());
+            outdated.addAll(changed);
+            if (outdated.isEmpty()) {
+                done(true);
+            } else if (++rounds >= MAX_ROUNDS) {
+                done(false);
+            } else {
+                LongIterator iterator = outdated.iterator();
+                while (iterator.hasNext()) {
+                    snapshot.capture(world, iterator.nextLong());
+                }
+                submit();
+            }
+        }
+
+        void done(boolean valid) {
+            if (!valid) {
+                scans.forEach(Building.Scan::discard);
+            }
+            running.remove(this);
+            future.complete(null);
+        }
+    }
+}
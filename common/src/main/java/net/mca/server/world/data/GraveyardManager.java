@@ -13,7 +13,6 @@ import net.minecraft.nbt.NbtList;
 import net.minecraft.nbt.NbtLong;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.*;
-import net.minecraft.world.PersistentState;
 
 import java.util.*;
 import java.util.function.LongFunction;
@@ -24,7 +23,7 @@ import java.util.function.LongFunction;
  * Because this structure can potentially be very large, we have to take special considerations into account.
  * Besides already using fast-collections we also try not to create or store any BlockPos instances without need.
  */
-public class GraveyardManager extends PersistentState {
+public class GraveyardManager extends AsyncPersistentState {
 
     private final Map<TombstoneState, Long2ObjectMap<ChunkBase>> tombstones = new EnumMap<>(TombstoneState.class);
 
@@ -158,7 +157,7 @@ public class GraveyardManager extends PersistentState {
         GraveyardManager.get((ServerWorld)entity.world)
                 .findAll(entity.getBoundingBox().expand(24D), true, true)
                 .stream()
-                .filter(p -> !manager.cache.contains(p))
+                .filter(p -> !manager.isReported(p))
                 .forEach(manager::processBuilding);
     }
 
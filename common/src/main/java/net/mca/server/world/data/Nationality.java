@@ -6,13 +6,12 @@ import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtInt;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.PersistentState;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
 
-public class Nationality extends PersistentState {
+public class Nationality extends AsyncPersistentState {
     private static final int CHUNK_SIZE = 128;
     private Map<Long, Integer> map = new HashMap<>();
 
@@ -31,7 +31,6 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.TranslatableText;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.PersistentState;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -41,7 +40,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-public class PlayerSaveData extends PersistentState implements EntityRelationship {
+public class PlayerSaveData extends AsyncPersistentState implements EntityRelationship {
     private final ServerWorld world;
     private final UUID uuid;
 
@@ -225,9 +224,9 @@ public class PlayerSaveData extends PersistentState implements EntityRelationshi
     @Override
     public NbtCompound writeNbt(NbtCompound nbt) {
         lastSeenVillage.ifPresent(id -> nbt.putInt("lastSeenVillage", id));
-        nbt.put("entityData", entityData);
+        nbt.put("entityData", entityData.copy());
         nbt.putBoolean("entityDataSet", entityDataSet);
-        nbt.put("inbox", NbtHelper.fromList(inbox, v -> v));
+        nbt.put("inbox", NbtHelper.fromList(inbox, NbtCompound::copy));
         return nbt;
     }
 
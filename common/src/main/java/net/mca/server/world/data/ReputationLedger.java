@@ -0,0 +1,71 @@
+package net.mca.server.world.data;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.*;
+
+/**
+ * The hearts each resident has with each player, plus a running total per player kept up to date on every change.
+ */
+class ReputationLedger {
+    private final Map<UUID, Object2IntMap<UUID>> hearts = new HashMap<>();
+    private final Object2IntMap<UUID> totals = new Object2IntOpenHashMap<>();
+
+    /**
+     * @return whether the stored value changed
+     */
+    public boolean set(UUID player, UUID villager, int rep) {
+        Object2IntMap<UUID> map = hearts.computeIfAbsent(player, p -> new Object2IntOpenHashMap<>());
+        if (map.containsKey(villager) && map.getInt(villager) == rep) {
+            return false;
+        }
+        int old = map.put(villager, rep);
+        totals.put(player, totals.getInt(player) + rep - old);
+        return true;
+    }
+
+    public int getTotal(UUID player) {
+        return totals.getInt(player);
+    }
+
+    /**
+     * Removes all villagers not in the given set.
+     *
+     * @return whether anything has been removed
+     */
+    public boolean retain(Set<UUID> villagers) {
+        boolean removed = false;
+        Iterator<Map.Entry<UUID, Object2IntMap<UUID>>> iterator = hearts.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Object2IntMap<UUID>> entry = iterator.next();
+            int total = totals.getInt(entry.getKey());
+            Iterator<Object2IntMap.Entry<UUID>> villagerIterator = entry.getValue().object2IntEntrySet().iterator();
+            while (villagerIterator.hasNext()) {
+                Object2IntMap.Entry<UUID> v = villagerIterator.next();
+                if (!villagers.contains(v.getKey())) {
+                    total -= v.getIntValue();
+                    villagerIterator.remove();
+                    removed = true;
+                }
+            }
+            if (entry.getValue().isEmpty()) {
+                iterator.remove();
+                totals.removeInt(entry.getKey());
+            } else {
+                totals.put(entry.getKey(), total);
+            }
+        }
+        return removed;
+    }
+
+    public Map<UUID, Object2IntMap<UUID>> asMap() {
+        return Collections.unmodifiableMap(hearts);
+    }
+
+    public void load(Map<UUID, Map<UUID, Integer>> map) {
+        hearts.clear();
+        totals.clear();
+        map.forEach((player, villagers) -> villagers.forEach((villager, rep) -> set(player, villager, rep)));
+    }
+}
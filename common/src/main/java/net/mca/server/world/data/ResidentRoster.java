@@ -0,0 +1,59 @@
+package net.mca.server.world.data;
+
+import net.mca.entity.VillagerEntityMCA;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.world.ServerWorld;
+
+import java.util.*;
+
+/**
+ * The residents of one village, shared by all village jobs.
+ * The resident ids are collected once per change of the buildings, the loaded villagers are resolved at most once per tick.
+ */
+class ResidentRoster {
+    private final Iterable<Building> buildings;
+
+    private Set<UUID> uuids;
+
+    private List<VillagerEntityMCA> villagers;
+    private long resolvedAt;
+
+    ResidentRoster(Iterable<Building> buildings) {
+        this.buildings = buildings;
+    }
+
+    /**
+     * Forgets the collected residents, called whenever a building or its residents changed.
+     */
+    public void invalidate() {
+        uuids = null;
+        villagers = null;
+    }
+
+    public Set<UUID> getUUIDs() {
+        if (uuids == null) {
+            Set<UUID> set = new LinkedHashSet<>();
+            for (Building building : buildings) {
+                set.addAll(building.getResidents().keySet());
+            }
+            uuids = Collections.unmodifiableSet(set);
+        }
+        return uuids;
+    }
+
+    public List<VillagerEntityMCA> getVillagers(ServerWorld world) {
+        long time = world.getTime();
+        if (villagers == null || resolvedAt != time) {
+            List<VillagerEntityMCA> list = new ArrayList<>();
+            for (UUID uuid : getUUIDs()) {
+                Entity entity = world.getEntity(uuid);
+                if (entity instanceof VillagerEntityMCA villager) {
+                    list.add(villager);
+                }
+            }
+            villagers = Collections.unmodifiableList(list);
+            resolvedAt = time;
+        }
+        return villagers;
+    }
+}
@@ -0,0 +1,133 @@
+package net.mca.server.world.data;
+
+import net.mca.MCA;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.world.PersistentState;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Writes persistent states off the server thread.
+ * The NBT is captured on the server thread and serves as the snapshot, compression and file IO happen on a single background thread.
+ * Files are written next to their target and moved over it, so a crash never leaves a truncated file behind.
+ */
+public final class SaveCoordinator {
+    private static final Map<File, NbtCompound> PENDING = new ConcurrentHashMap<>();
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "MCA Saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SaveCoordinator() {
+    }
+
+    /**
+     * Captures the state if dirty and queues it to be written. A capture still waiting for the same file is replaced.
+     */
+    public static void save(PersistentState state, File file) {
+        if (!state.isDirty()) {
+            return;
+        }
+
+        NbtCompound data = state.writeNbt(new NbtCompound());
+        state.setDirty(false);
+        write(file, data);
+    }
+
+    /**
+     * Queues data to be written in the same format as persistent states.
+     */
+    public static void write(File file, NbtCompound data) {
+        NbtCompound nbt = new NbtCompound();
+        nbt.put("data", data);
+        nbt.putInt("DataVersion", SharedConstants.getGameVersion().getWorldVersion());
+
+        if (PENDING.put(file, nbt) == null) {
+            EXECUTOR.execute(() -> writePending(file));
+        }
+    }
+
+    /**
+     * Deletes the file after everything queued so far has been written, a write still waiting for this file is dropped.
+     */
+    public static void delete(File file) {
+        PENDING.remove(file);
+        EXECUTOR.execute(() -> {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                MCA.LOGGER.error("Could not delete data " + file, e);
+            }
+        });
+    }
+
+    /**
+     * Reads data written by {@link #write(File, NbtCompound)}, including data which is still waiting to be written.
+     *
+     * @return the data, or null if there is none
+     */
+    @Nullable
+    public static NbtCompound read(File file) throws IOException {
+        NbtCompound nbt = PENDING.get(file);
+        if (nbt == null) {
+            if (!file.exists()) {
+                return null;
+            }
+            nbt = NbtIo.readCompressed(file);
+        }
+        return nbt.getCompound("data");
+    }
+
+    /**
+     * Blocks until everything queued so far has been written.
+     */
+    public static void flush() {
+        try {
+            EXECUTOR.submit(() -> {}).get();
+        } catch (InterruptedException | ExecutionException e) {
+            MCA.LOGGER.error("Failed to flush pending saves", e);
+        }
+    }
+
+    /**
+     * Writes the latest data queued for the file. It stays readable through {@link #read(File)} until it is on disk.
+     */
+    private static void writePending(File file) {
+        NbtCompound nbt;
+        while ((nbt = PENDING.get(file)) != null) {
+            Path target = file.toPath();
+            Path temp = target.resolveSibling(file.getName() + ".tmp");
+            try {
+                Files.createDirectories(target.getParent());
+                NbtIo.writeCompressed(nbt, temp.toFile());
+                try {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                MCA.LOGGER.error("Could not save data " + file, e);
+            }
+
+            //newer data may have been queued in the meantime
+            if (PENDING.remove(file, nbt)) {
+                return;
+            }
+        }
+    }
+}
@@ -4,7 +4,6 @@ import net.mca.Config;
 import net.mca.ProfessionsMCA;
 import net.mca.entity.EquipmentSet;
 import net.mca.entity.VillagerEntityMCA;
-import net.mca.entity.ai.Memories;
 import net.mca.entity.ai.relationship.Gender;
 import net.mca.entity.ai.relationship.family.FamilyTree;
 import net.mca.resources.API;
@@ -41,9 +40,12 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.village.VillagerProfession;
 import net.minecraft.world.BlockView;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class Village implements Iterable<Building> {
@@ -53,12 +55,17 @@ public class Village implements Iterable<Building> {
     public final static int BORDER_MARGIN = 32;
     public final static int MERGE_MARGIN = 64;
 
+    private static final AtomicLong lastRevision = new AtomicLong();
+
     private String name = API.getVillagePool().pickVillageName("village");
 
     public final List<ItemStack> storageBuffer = new LinkedList<>();
     private final Map<Integer, Building> buildings = new HashMap<>();
+    private final BuildingIndex buildingIndex = new BuildingIndex();
+    private final ResidentRoster roster = new ResidentRoster(buildings.values());
     private Map<UUID, Integer> unspentHearts = new HashMap<>();
-    private Map<UUID, Map<UUID, Integer>> reputation = new HashMap<>();
+    private final ReputationLedger reputation = new ReputationLedger();
+    private boolean reputationChanged;
     private int unspentMood = 0;
 
     public long lastMoveIn;
@@ -70,8 +77,17 @@ public class Village implements Iterable<Building> {
 
     private boolean autoScan = true;
 
+    private long revision = nextRevision();
+    private long syncedRevision = -1;
+    private boolean dirty;
+
+    private long dormantSince = -1;
+
     private BlockBoxExtended box = new BlockBoxExtended(0, 0, 0, 0, 0, 0);
 
+    @Nullable
+    private VillageIndex index;
+
     public Village() {
     }
 
@@ -92,7 +108,7 @@ public class Village implements Iterable<Building> {
     }
 
     public boolean isWithinBorder(BlockPos pos, int margin) {
-        return box.expand(margin).contains(pos);
+        return box.contains(pos, margin);
     }
 
     @Override
@@ -100,19 +116,60 @@ public class Village implements Iterable<Building> {
         return buildings.values().iterator();
     }
 
+    public void addBuilding(Building building) {
+        Building old = buildings.put(building.getId(), building);
+        if (old != null && old != building) {
+            unlinkBuilding(old);
+        }
+        building.setVillage(this);
+        buildingIndex.add(building);
+        roster.invalidate();
+        dirty = true;
+    }
+
     public void removeBuilding(int id) {
-        buildings.remove(id);
+        Building building = buildings.remove(id);
+        if (building != null) {
+            unlinkBuilding(building);
+        }
+        revision = nextRevision();
+        dirty = true;
         if (!buildings.isEmpty()) {
             calculateDimensions();
         }
     }
 
+    private void unlinkBuilding(Building building) {
+        buildingIndex.remove(building);
+        roster.invalidate();
+        if (building.getVillage() == this) {
+            building.setVillage(null);
+        }
+    }
+
+    void onBuildingChanged(Building building) {
+        buildingIndex.markChanged(building);
+        roster.invalidate();
+        dirty = true;
+    }
+
     public Stream<Building> getBuildingsOfType(String type) {
-        return getBuildings().values().stream().filter(b -> b.getType().equals(type));
+        return buildingIndex.getByType(type).stream();
     }
 
     public Optional<Building> getBuildingAt(Vec3i pos) {
-        return getBuildings().values().stream().filter(b -> b.containsPos(pos)).findAny();
+        return getBuildingsAt(pos).findAny();
+    }
+
+    public Stream<Building> getBuildingsAt(Vec3i pos) {
+        return buildingIndex.query(pos).stream().filter(b -> b.containsPos(pos));
+    }
+
+    /**
+     * Buildings with more beds than residents.
+     */
+    public Stream<Building> getBuildingsWithFreeSpace() {
+        return buildingIndex.getWithFreeSpace().stream();
     }
 
     public void calculateDimensions() {
@@ -135,6 +192,14 @@ public class Village implements Iterable<Building> {
         }
 
         box = new BlockBoxExtended(sx, sy, sz, ex, ey, ez);
+
+        if (index != null) {
+            index.update(this);
+        }
+    }
+
+    void setIndex(@Nullable VillageIndex index) {
+        this.index = index;
     }
 
     public Vec3i getCenter() {
@@ -190,7 +255,7 @@ public class Village implements Iterable<Building> {
     }
 
     public Map<Integer, Building> getBuildings() {
-        return buildings;
+        return Collections.unmodifiableMap(buildings);
     }
 
     public Optional<Building> getBuilding(int id) {
@@ -206,33 +271,22 @@ public class Village implements Iterable<Building> {
     }
 
     public int getPopulation() {
-        int residents = 0;
-        for (Building b : this) {
-            residents += b.getResidents().size();
-        }
-        return residents;
+        return buildingIndex.getResidents();
     }
 
     public Stream<UUID> getResidentsUUIDs() {
-        return getBuildings().values()
-                .stream()
-                .flatMap(building -> building.getResidents().keySet().stream());
+        return roster.getUUIDs().stream();
     }
 
+    /**
+     * @return the loaded residents, resolved once per tick
+     */
     public List<VillagerEntityMCA> getResidents(ServerWorld world) {
-        return getResidentsUUIDs()
-                .map(world::getEntity)
-                .filter(v -> v instanceof VillagerEntityMCA)
-                .map(VillagerEntityMCA.class::cast)
-                .collect(Collectors.toList());
+        return roster.getVillagers(world);
     }
 
     public int getMaxPopulation() {
-        int residents = 0;
-        for (Building b : this) {
-            residents += b.getBedCount();
-        }
-        return residents;
+        return buildingIndex.getBeds();
     }
 
     public boolean hasStoredResource() {
@@ -240,75 +294,160 @@ public class Village implements Iterable<Building> {
     }
 
     public boolean hasBuilding(String building) {
-        return buildings.values().stream().anyMatch(b -> b.getType().equals(building));
+        return buildingIndex.hasType(building);
+    }
+
+    /**
+     * The periodic work of a village, spread over their periods by the {@link VillageTickScheduler}.
+     */
+    public enum Job {
+        TAXES,
+        UPDATE,
+        CLEAN_REPUTATION;
+
+        public int getPeriod() {
+            return switch (this) {
+                case TAXES -> Config.getInstance().taxSeason;
+                case UPDATE -> MOVE_IN_COOLDOWN;
+                case CLEAN_REPUTATION -> 24000;
+            };
+        }
+    }
+
+    public void runJob(Job job, ServerWorld world, long time) {
+        if (reputationChanged) {
+            reputationChanged = false;
+            markDirty(world);
+        }
+
+        switch (job) {
+            case TAXES -> {
+                if (hasBuilding("storage")) {
+                    collectTaxes(world);
+                }
+            }
+            case UPDATE -> {
+                if (lastMoveIn + MOVE_IN_COOLDOWN < time) {
+                    spawnGuards(world);
+                    procreate(world);
+                    marry(world);
+                    inn(world);
+                }
+            }
+            case CLEAN_REPUTATION -> cleanReputation();
+        }
+    }
+
+    /**
+     * Whether the chunk at the center of this village is loaded.
+     */
+    public boolean isLoaded(ServerWorld world) {
+        Vec3i center = getCenter();
+        return world.isChunkLoaded(ChunkSectionPos.getSectionCoord(center.getX()), ChunkSectionPos.getSectionCoord(center.getZ()));
+    }
+
+    public boolean isDormant() {
+        return dormantSince >= 0;
     }
 
-    public void tick(ServerWorld world, long time) {
-        boolean isTaxSeason = time % Config.getInstance().taxSeason == 0;
-        boolean isVillageUpdateTime = time % MOVE_IN_COOLDOWN == 0;
+    /**
+     * Skips a job while the village is not loaded. Only the time the village fell dormant is recorded,
+     * {@link #wake(ServerWorld, long)} derives the missed jobs from it.
+     */
+    public void suspendJob(long time) {
+        if (dormantSince < 0) {
+            dormantSince = time;
+            dirty = true;
+        }
+    }
 
-        if (isTaxSeason && hasBuilding("storage")) {
-            int emeraldValue = 100;
-            int taxes = (int)(Config.getInstance().taxesFactor * getPopulation() * getTaxes() + world.random.nextInt(emeraldValue));
-            int moodImpact = 0;
+    /**
+     * Applies the jobs missed while dormant at once: all missed tax seasons with a single notification, and a single reputation cleanup.
+     * Guards, procreation, marriages and inn visitors need loaded villagers, those are skipped.
+     */
+    public void wake(ServerWorld world, long time) {
+        int seasons = VillageTickScheduler.countDue(id, Job.TAXES, dormantSince, time);
+        if (seasons > 0 && hasBuilding("storage")) {
+            collectTaxes(world, seasons);
+        }
+        if (VillageTickScheduler.countDue(id, Job.CLEAN_REPUTATION, dormantSince, time) > 0) {
+            cleanReputation();
+        }
 
-            //response
-            Text msg;
+        dormantSince = -1;
+        markDirty(world);
+    }
+
+    private void collectTaxes(ServerWorld world) {
+        collectTaxes(world, 1);
+    }
+
+    /**
+     * Each season rolls its own response, only the response of the latest season is announced.
+     */
+    private void collectTaxes(ServerWorld world, int seasons) {
+        int emeraldValue = 100;
+        int taxes = 0;
+        int moodImpact = 0;
+
+        //response
+        String response = "";
+        Formatting color = Formatting.RESET;
+        for (int season = 0; season < seasons; season++) {
+            int seasonTaxes = (int)(Config.getInstance().taxesFactor * getPopulation() * getTaxes() + world.random.nextInt(emeraldValue));
             float r = MathHelper.lerp(0.5f, getTaxes() / 100.0f, world.random.nextFloat());
             if (getTaxes() == 0.0f) {
-                msg = new TranslatableText("gui.village.taxes.no", getName()).formatted(Formatting.GREEN);
-                moodImpact = 5;
+                response = ".no";
+                color = Formatting.GREEN;
+                moodImpact += 5;
             } else if (r < 0.1) {
-                msg = new TranslatableText("gui.village.taxes.more", getName()).formatted(Formatting.GREEN);
-                taxes += getPopulation() * 0.25;
+                response = ".more";
+                color = Formatting.GREEN;
+                seasonTaxes += getPopulation() * 0.25;
             } else if (r < 0.3) {
-                msg = new TranslatableText("gui.village.taxes.happy", getName()).formatted(Formatting.DARK_GREEN);
-                moodImpact = 5;
+                response = ".happy";
+                color = Formatting.DARK_GREEN;
+                moodImpact += 5;
             } else if (r < 0.7) {
-                msg = new TranslatableText("gui.village.taxes", getName());
+                response = "";
+                color = Formatting.RESET;
             } else if (r < 0.8) {
-                msg = new TranslatableText("gui.village.taxes.sad", getName()).formatted(Formatting.GOLD);
-                moodImpact = -5;
+                response = ".sad";
+                color = Formatting.GOLD;
+                moodImpact -= 5;
             } else if (r < 0.9) {
-                msg = new TranslatableText("gui.village.taxes.angry", getName()).formatted(Formatting.RED);
-                moodImpact = -10;
+                response = ".angry";
+                color = Formatting.RED;
+                moodImpact -= 10;
             } else {
-                msg = new TranslatableText("gui.village.taxes.riot", getName()).formatted(Formatting.DARK_RED);
-                taxes = 0;
-            }
-
-            //send all player with rank merchant a notification
-            world.getPlayers().stream()
-                    .filter(v -> Tasks.getRank(this, v).isAtLeast(Rank.MERCHANT))
-                    .forEach(player -> player.sendMessage(msg, true));
-
-            if (hasBuilding("library")) {
-                taxes *= 1.5;
+                response = ".riot";
+                color = Formatting.DARK_RED;
+                seasonTaxes = 0;
             }
+            taxes += seasonTaxes;
+        }
 
-            int emeraldCount = taxes / emeraldValue;
-            while (emeraldCount > 0 && storageBuffer.size() < MAX_STORAGE_SIZE) {
-                storageBuffer.add(new ItemStack(Items.EMERALD, Math.min(emeraldCount, Items.EMERALD.getMaxCount())));
-                emeraldCount -= Items.EMERALD.getMaxCount();
-            }
+        //send all player with rank merchant a notification
+        Text msg = new TranslatableText("gui.village.taxes" + response, getName()).formatted(color);
+        world.getPlayers().stream()
+                .filter(v -> Tasks.getRank(this, v).isAtLeast(Rank.MERCHANT))
+                .forEach(player -> player.sendMessage(msg, true));
 
-            if (moodImpact != 0) {
-                pushMood(world, moodImpact * getPopulation());
-            }
-
-            deliverTaxes(world);
+        if (hasBuilding("library")) {
+            taxes *= 1.5;
         }
 
-        if (time % 24000 == 0) {
-            cleanReputation();
+        int emeraldCount = taxes / emeraldValue;
+        while (emeraldCount > 0 && storageBuffer.size() < MAX_STORAGE_SIZE) {
+            storageBuffer.add(new ItemStack(Items.EMERALD, Math.min(emeraldCount, Items.EMERALD.getMaxCount())));
+            emeraldCount -= Items.EMERALD.getMaxCount();
         }
 
-        if (isVillageUpdateTime && lastMoveIn + MOVE_IN_COOLDOWN < time) {
-            spawnGuards(world);
-            procreate(world);
-            marry(world);
-            inn(world);
+        if (moodImpact != 0) {
+            pushMood(world, moodImpact * getPopulation());
         }
+
+        deliverTaxes(world);
     }
 
     public void deliverTaxes(ServerWorld world) {
@@ -449,7 +588,7 @@ public class Village implements Iterable<Building> {
 
         //use the one with the least max hearts
         //this feels random yet respects relationships
-        availableVillagers.sort(Comparator.comparingInt(a -> a.getVillagerBrain().getMemories().values().stream().map(Memories::getHearts).max(Integer::compare).orElse(0)));
+        availableVillagers.sort(Comparator.comparingInt(a -> a.getVillagerBrain().getMaxHearts()));
 
         VillagerEntityMCA suitor = availableVillagers.remove(0);
 
@@ -549,8 +688,44 @@ public class Village implements Iterable<Building> {
                 .forEach(player -> player.sendMessage(new TranslatableText(event, targetName), !Config.getInstance().showNotificationsAsChat));
     }
 
+    static long nextRevision() {
+        return lastRevision.incrementAndGet();
+    }
+
+    /**
+     * The revision is bumped whenever this village or one of its buildings changes.
+     * Clients send the revision of their cached copy, see {@link #getSyncedRevision()}, to only receive what changed since then.
+     */
+    public long getRevision() {
+        long r = revision;
+        for (Building building : buildings.values()) {
+            r = Math.max(r, building.getRevision());
+        }
+        return r;
+    }
+
+    /**
+     * The server side revision of the last delta applied to this client side copy, or -1.
+     * Revisions are counted per JVM, so the client never mixes in revisions of its own building copies.
+     */
+    public long getSyncedRevision() {
+        return syncedRevision;
+    }
+
     public void markDirty(ServerWorld world) {
-        VillageManager.get(world).markDirty();
+        revision = nextRevision();
+        dirty = true;
+    }
+
+    /**
+     * Whether this village changed since it has been saved last, see {@link VillageShard}.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
     }
 
     public void addResident(VillagerEntityMCA villager, int buildingId) {
@@ -565,7 +740,7 @@ public class Village implements Iterable<Building> {
     }
 
     public void removeResident(UUID uuid) {
-        buildings.values().forEach(b -> b.getResidents().remove(uuid));
+        buildings.values().forEach(b -> b.removeResident(uuid));
     }
 
     public EquipmentSet getGuardEquipment(VillagerProfession profession, Hand dominantHand) {
@@ -598,23 +773,20 @@ public class Village implements Iterable<Building> {
 
     // removes all villagers no longer living here
     public void cleanReputation() {
-        Set<UUID> residents = getResidentsUUIDs().collect(Collectors.toSet());
-        for (Map<UUID, Integer> map : reputation.values()) {
-            Set<UUID> toRemove = map.keySet().stream().filter(v -> !residents.contains(v)).collect(Collectors.toSet());
-            for (UUID uuid : toRemove) {
-                map.remove(uuid);
-            }
+        if (reputation.retain(roster.getUUIDs())) {
+            dirty = true;
         }
     }
 
+    /**
+     * Updates the hearts a resident has with a player. Changes are only collected, the village is marked dirty once per job run.
+     */
     public void setReputation(PlayerEntity player, VillagerEntityMCA villager, int rep) {
-        reputation.computeIfAbsent(player.getUuid(), i -> new HashMap<>()).put(villager.getUuid(), rep);
-        markDirty((ServerWorld)player.world);
+        reputationChanged |= reputation.set(player.getUuid(), villager.getUuid(), rep);
     }
 
     public int getReputation(PlayerEntity player) {
-        return reputation.getOrDefault(player.getUuid(), Collections.emptyMap()).values().stream().mapToInt(i -> i).sum()
-                + unspentHearts.getOrDefault(player.getUuid(), 0);
+        return reputation.getTotal(player.getUuid()) + unspentHearts.getOrDefault(player.getUuid(), 0);
     }
 
     public void resetHearts(PlayerEntity player) {
@@ -629,6 +801,7 @@ public class Village implements Iterable<Building> {
 
     public void pushHearts(UUID player, int rep) {
         unspentHearts.put(player, unspentHearts.getOrDefault(player, 0) + rep);
+        dirty = true;
     }
 
     public int popHearts(PlayerEntity player) {
@@ -683,7 +856,7 @@ public class Village implements Iterable<Building> {
         v.putString("name", name);
         v.putInt("taxes", taxes);
         v.put("unspentHearts", NbtHelper.fromMap(new NbtCompound(), unspentHearts, UUID::toString, NbtInt::of));
-        v.put("reputation", NbtHelper.fromMap(new NbtCompound(), reputation, UUID::toString, i ->
+        v.put("reputation", NbtHelper.fromMap(new NbtCompound(), reputation.asMap(), UUID::toString, i ->
                 NbtHelper.fromMap(new NbtCompound(), i, UUID::toString, NbtInt::of)
         ));
         v.putInt("unspentMood", unspentMood);
@@ -691,6 +864,7 @@ public class Village implements Iterable<Building> {
         v.putInt("marriageThreshold", marriageThreshold);
         v.put("buildings", NbtHelper.fromList(buildings.values(), Building::save));
         v.putBoolean("autoScan", autoScan);
+        v.putLong("dormantSince", dormantSince);
         return v;
     }
 
@@ -699,9 +873,9 @@ public class Village implements Iterable<Building> {
         name = v.getString("name");
         taxes = v.getInt("taxes");
         unspentHearts = NbtHelper.toMap(v.getCompound("unspentHearts"), UUID::fromString, i -> ((NbtInt)i).intValue());
-        reputation = NbtHelper.toMap(v.getCompound("reputation"), UUID::fromString, i ->
+        reputation.load(NbtHelper.toMap(v.getCompound("reputation"), UUID::fromString, i ->
                 NbtHelper.toMap((NbtCompound)i, UUID::fromString, i2 -> ((NbtInt)i2).intValue())
-        );
+        ));
         unspentMood = v.getInt("unspentMood");
         populationThreshold = v.getInt("populationThreshold");
         marriageThreshold = v.getInt("marriageThreshold");
@@ -712,10 +886,60 @@ public class Village implements Iterable<Building> {
             autoScan = true;
         }
 
+        dormantSince = v.contains("dormantSince") ? v.getLong("dormantSince") : -1;
+
+        NbtList b = v.getList("buildings", NbtElement.COMPOUND_TYPE);
+        for (int i = 0; i < b.size(); i++) {
+            addBuilding(new Building(b.getCompound(i)));
+        }
+
+        if (!buildings.isEmpty()) {
+            calculateDimensions();
+        }
+    }
+
+    /**
+     * Writes the client view of this village, with only those buildings which changed after the given revision.
+     * Reputation and unspent hearts and mood are server side only.
+     */
+    public NbtCompound saveDelta(long since) {
+        NbtCompound v = new NbtCompound();
+        v.putInt("id", id);
+        v.putLong("revision", getRevision());
+        v.putString("name", name);
+        v.putInt("taxes", taxes);
+        v.putInt("populationThreshold", populationThreshold);
+        v.putInt("marriageThreshold", marriageThreshold);
+        v.putBoolean("autoScan", autoScan);
+        v.putIntArray("buildingIds", buildings.keySet().stream().mapToInt(i -> i).toArray());
+        v.put("buildings", NbtHelper.fromList(buildings.values().stream().filter(b -> b.getRevision() > since).toList(), Building::save));
+        return v;
+    }
+
+    /**
+     * Applies the output of {@link #saveDelta(long)} to this (client side) copy.
+     */
+    public void loadDelta(NbtCompound v) {
+        id = v.getInt("id");
+        syncedRevision = v.getLong("revision");
+        name = v.getString("name");
+        taxes = v.getInt("taxes");
+        populationThreshold = v.getInt("populationThreshold");
+        marriageThreshold = v.getInt("marriageThreshold");
+        autoScan = v.getBoolean("autoScan");
+
+        Set<Integer> ids = IntStream.of(v.getIntArray("buildingIds")).boxed().collect(Collectors.toSet());
+        buildings.values().removeIf(building -> {
+            if (ids.contains(building.getId())) {
+                return false;
+            }
+            unlinkBuilding(building);
+            return true;
+        });
+
         NbtList b = v.getList("buildings", NbtElement.COMPOUND_TYPE);
         for (int i = 0; i < b.size(); i++) {
-            Building building = new Building(b.getCompound(i));
-            buildings.put(building.getId(), building);
+            addBuilding(new Building(b.getCompound(i)));
         }
 
         if (!buildings.isEmpty()) {
@@ -724,8 +948,9 @@ public class Village implements Iterable<Building> {
     }
 
     public void merge(Village village) {
-        buildings.putAll(village.buildings);
+        village.buildings.values().forEach(this::addBuilding);
         unspentMood += village.unspentMood;
+        revision = nextRevision();
         calculateDimensions();
     }
 
@@ -0,0 +1,90 @@
+package net.mca.server.world.data;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3i;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * A coarse horizontal grid over the village boxes, each grown by {@link #MAX_MARGIN}.
+ * Queries only return candidates, callers still have to check the actual box.
+ */
+class VillageIndex {
+    /**
+     * Queries with a larger margin than this can not be answered by the index.
+     */
+    static final int MAX_MARGIN = Village.MERGE_MARGIN;
+
+    private static final int CELL_SHIFT = 6;
+
+    private final Long2ObjectMap<List<Village>> cells = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * The box each village has been indexed with, to remove it again once it changed.
+     */
+    private final Map<Village, BlockBox> indexed = new IdentityHashMap<>();
+
+    public void update(Village village) {
+        remove(village);
+
+        BlockBox box = village.getBox();
+        if (box.getMinX() > box.getMaxX() || box.getMinZ() > box.getMaxZ()) {
+            return;
+        }
+
+        indexed.put(village, box);
+        forEachCell(box, MAX_MARGIN, cell -> cells.computeIfAbsent(cell, c -> new ArrayList<>(1)).add(village));
+    }
+
+    public void remove(Village village) {
+        BlockBox box = indexed.remove(village);
+        if (box != null) {
+            forEachCell(box, MAX_MARGIN, cell -> {
+                List<Village> list = cells.get(cell);
+                if (list != null) {
+                    list.remove(village);
+                    if (list.isEmpty()) {
+                        cells.remove(cell);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Villages which might contain the given position within {@link #MAX_MARGIN}.
+     */
+    public List<Village> query(Vec3i pos) {
+        return cells.getOrDefault(ChunkPos.toLong(pos.getX() >> CELL_SHIFT, pos.getZ() >> CELL_SHIFT), Collections.emptyList());
+    }
+
+    /**
+     * Villages which might intersect the given box within {@link #MAX_MARGIN}.
+     */
+    public Set<Village> query(BlockBox box) {
+        Set<Village> villages = Collections.newSetFromMap(new IdentityHashMap<>());
+        forEachCell(box, 0, cell -> {
+            List<Village> list = cells.get(cell);
+            if (list != null) {
+                villages.addAll(list);
+            }
+        });
+        return villages;
+    }
+
+    private static void forEachCell(BlockBox box, int margin, LongConsumer consumer) {
+        int x0 = (box.getMinX() - margin) >> CELL_SHIFT;
+        int z0 = (box.getMinZ() - margin) >> CELL_SHIFT;
+        int x1 = (box.getMaxX() + margin) >> CELL_SHIFT;
+        int z1 = (box.getMaxZ() + margin) >> CELL_SHIFT;
+        for (int x = x0; x <= x1; x++) {
+            for (int z = z0; z <= z1; z++) {
+                consumer.accept(ChunkPos.toLong(x, z));
+            }
+        }
+    }
+}
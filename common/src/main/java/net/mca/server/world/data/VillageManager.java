@@ -1,5 +1,10 @@
 package net.mca.server.world.data;
 
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import net.mca.Config;
 import net.mca.MCA;
 import net.mca.advancement.criterion.CriterionMCA;
@@ -7,9 +12,10 @@ import net.mca.resources.API;
 import net.mca.resources.data.BuildingType;
 import net.mca.server.ReaperSpawner;
 import net.mca.server.SpawnQueue;
-import net.mca.util.NbtHelper;
 import net.mca.util.WorldUtils;
 import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.DoorBlock;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.SpawnReason;
@@ -20,6 +26,7 @@ import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtList;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.tag.BlockTags;
 import net.minecraft.text.TranslatableText;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.math.BlockPos;
@@ -27,23 +34,37 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.world.Difficulty;
 import net.minecraft.world.Heightmap;
-import net.minecraft.world.PersistentState;
 import net.minecraft.world.SpawnHelper;
 
+import java.io.File;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class VillageManager extends PersistentState implements Iterable<Village> {
+public class VillageManager extends AsyncPersistentState implements Iterable<Village> {
     private final Map<Integer, Village> villages = new HashMap<>();
+    private final Map<Integer, VillageShard> shards = new HashMap<>();
 
-    public final Set<BlockPos> cache = ConcurrentHashMap.newKeySet();
+    /**
+     * Villages whose shard file is deleted after the next save of the village list.
+     */
+    private final IntSet droppedShards = new IntOpenHashSet();
+
+    private final VillageIndex index = new VillageIndex();
+
+    private final VillageTickScheduler scheduler = new VillageTickScheduler();
 
     public final Map<Integer, Integer> buildingToVillages = new HashMap<>();
 
-    private final List<BlockPos> buildingQueue = new LinkedList<>();
+    private final BuildingQueue buildingQueue = new BuildingQueue();
+    private int pendingScans;
+
+    /**
+     * Buildings which had blocks changed inside their bounds, with the time of the last change.
+     */
+    private final Int2LongMap changedBuildings = new Int2LongOpenHashMap();
 
     private int lastBuildingId;
     private int lastVillageId;
@@ -53,7 +74,12 @@ public class VillageManager extends PersistentState implements Iterable<Village>
     private final ReaperSpawner reapers;
     private final BabyBunker babies;
 
-    private int buildingCooldown = 21;
+    private final BuildingScanner scanner;
+
+    private int buildingCooldown = 1;
+
+    private static final int REVALIDATION_DELAY = 100;
+    private static final int MAX_PENDING_SCANS = 4;
 
     public static VillageManager get(ServerWorld world) {
         return WorldUtils.loadData(world, nbt -> new VillageManager(world, nbt), VillageManager::new, "mca_villages");
@@ -63,24 +89,51 @@ public class VillageManager extends PersistentState implements Iterable<Village>
         this.world = world;
         reapers = new ReaperSpawner(this);
         babies = new BabyBunker(this);
+        scanner = new BuildingScanner(world);
     }
 
     VillageManager(ServerWorld world, NbtCompound nbt) {
         this.world = world;
+        scanner = new BuildingScanner(world);
         lastBuildingId = nbt.getInt("lastBuildingId");
         lastVillageId = nbt.getInt("lastVillageId");
         reapers = nbt.contains("reapers", NbtElement.COMPOUND_TYPE) ? new ReaperSpawner(this, nbt.getCompound("reapers")) : new ReaperSpawner(this);
         babies = nbt.contains("babies", NbtElement.COMPOUND_TYPE) ? new BabyBunker(this, nbt.getCompound("babies")) : new BabyBunker(this);
 
-        NbtList villageList = nbt.getList("villages", NbtElement.COMPOUND_TYPE);
-        for (int i = 0; i < villageList.size(); i++) {
-            Village village = new Village();
-            village.load(villageList.getCompound(i));
+        for (int id : nbt.getIntArray("changedBuildings")) {
+            changedBuildings.put(id, 0);
+        }
+
+        List<Village> loaded = new LinkedList<>();
+        boolean converted = nbt.contains("villages", NbtElement.LIST_TYPE);
+        if (converted) {
+            //convert from the single file format, every village is written to its own shard on the next save
+            NbtList villageList = nbt.getList("villages", NbtElement.COMPOUND_TYPE);
+            for (int i = 0; i < villageList.size(); i++) {
+                Village village = new Village();
+                village.load(villageList.getCompound(i));
+                village.setDirty(true);
+                loaded.add(village);
+            }
+        } else {
+            for (int id : nbt.getIntArray("villageIds")) {
+                VillageShard shard = world.getPersistentStateManager().get(VillageShard::new, VillageShard.getId(id));
+                if (shard == null || shard.getVillage() == null) {
+                    MCA.LOGGER.warn("Missing data for village " + id + ", removing...");
+                } else {
+                    loaded.add(shard.getVillage());
+                }
+            }
+        }
+
+        for (Village village : loaded) {
             if (village.getBuildings().isEmpty()) {
                 MCA.LOGGER.warn("Empty village detected (" + village.getName() + "), removing...");
-                markDirty();
+                if (!converted) {
+                    dropShard(village.getId());
+                }
             } else {
-                villages.put(village.getId(), village);
+                addVillage(village);
             }
         }
 
@@ -90,6 +143,9 @@ public class VillageManager extends PersistentState implements Iterable<Village>
                 buildingToVillages.put(b.getId(), v.getId());
             }
         }
+
+        //only rewrite the village list if anything has been converted or removed
+        setDirty(converted || loaded.size() != villages.size());
     }
 
     public ReaperSpawner getReaperSpawner() {
@@ -105,13 +161,58 @@ public class VillageManager extends PersistentState implements Iterable<Village>
     }
 
     public boolean removeVillage(int id) {
-        if (villages.remove(id) != null) {
-            cache.clear();
+        if (dropVillage(id)) {
+            buildingQueue.clearReported();
+            return true;
+        }
+        return false;
+    }
+
+    private void addVillage(Village village) {
+        if (villages.put(village.getId(), village) != village) {
+            village.setIndex(index);
+            index.update(village);
+
+            VillageShard shard = new VillageShard(village);
+            shards.put(village.getId(), shard);
+            world.getPersistentStateManager().set(VillageShard.getId(village.getId()), shard);
+            markDirty();
+        }
+    }
+
+    private boolean dropVillage(int id) {
+        Village village = villages.remove(id);
+        if (village != null) {
+            index.remove(village);
+            village.setIndex(null);
+            dropShard(id);
+            markDirty();
             return true;
         }
         return false;
     }
 
+    private void dropShard(int id) {
+        shards.remove(id);
+        //cached as missing, just like a state which never existed
+        world.getPersistentStateManager().set(VillageShard.getId(id), null);
+        droppedShards.add(id);
+        markDirty();
+    }
+
+    /**
+     * Deletes the shards of removed villages once the village list no longer refers to them.
+     */
+    @Override
+    public void save(File file) {
+        super.save(file);
+
+        for (int id : droppedShards) {
+            SaveCoordinator.delete(new File(file.getParentFile(), VillageShard.getId(id) + ".dat"));
+        }
+        droppedShards.clear();
+    }
+
     @Override
     public Iterator<Village> iterator() {
         return villages.values().iterator();
@@ -122,23 +223,29 @@ public class VillageManager extends PersistentState implements Iterable<Village>
     }
 
     public Optional<Village> findNearestVillage(Entity entity) {
-        BlockPos p = entity.getBlockPos();
-        return findVillages(v -> v.isWithinBorder(entity)).min((a, b) -> (int)(a.getCenter().getSquaredDistance(p) - b.getCenter().getSquaredDistance(p)));
+        return findNearestVillage(entity.getBlockPos(), Village.BORDER_MARGIN);
     }
 
     public Optional<Village> findNearestVillage(BlockPos p, int margin) {
-        return findVillages(v -> v.isWithinBorder(p, margin)).min((a, b) -> (int)(a.getCenter().getSquaredDistance(p) - b.getCenter().getSquaredDistance(p)));
+        Collection<Village> candidates = margin > VillageIndex.MAX_MARGIN ? villages.values() : index.query(p);
+        return candidates.stream().filter(v -> v.isWithinBorder(p, margin)).min((a, b) -> (int)(a.getCenter().getSquaredDistance(p) - b.getCenter().getSquaredDistance(p)));
     }
 
     public boolean isWithinHorizontalBoundaries(BlockPos p) {
-        return villages.values().stream().anyMatch(v -> v.getBox().expand(0, 1000, 0).contains(p));
+        for (Village v : index.query(p)) {
+            if (v.getBox().contains(p, 0, 1000, 0)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public NbtCompound writeNbt(NbtCompound nbt) {
         nbt.putInt("lastBuildingId", lastBuildingId);
         nbt.putInt("lastVillageId", lastVillageId);
-        nbt.put("villages", NbtHelper.fromList(villages.values(), Village::save));
+        nbt.putIntArray("villageIds", villages.keySet().stream().mapToInt(i -> i).toArray());
+        nbt.putIntArray("changedBuildings", changedBuildings.keySet().toIntArray());
         nbt.put("reapers", reapers.writeNbt());
         return nbt;
     }
@@ -169,13 +276,33 @@ public class VillageManager extends PersistentState implements Iterable<Village>
 
         long time = world.getTime();
 
-        for (Village v : this) {
-            v.tick(world, time);
+        scheduler.tick(villages, world, time);
+
+        //process queued buildings within the time budget
+        buildingQueue.tick(time);
+        if (time % buildingCooldown == 0) {
+            long deadline = System.nanoTime() + Config.getInstance().buildingProcessingBudget * 1000000L;
+            while (!buildingQueue.isEmpty() && pendingScans < MAX_PENDING_SCANS && System.nanoTime() < deadline) {
+                boolean enforce = buildingQueue.peekPriority() == BuildingQueue.Priority.PLAYER;
+                CompletableFuture<Building.validationResult> result = processBuildingAsync(buildingQueue.poll(), enforce, false);
+                if (!result.isDone()) {
+                    pendingScans++;
+                    result.whenComplete((r, e) -> pendingScans--);
+                }
+            }
         }
 
-        //process a single building
-        if (time % buildingCooldown == 0 && !buildingQueue.isEmpty()) {
-            processBuilding(buildingQueue.remove(0));
+        //revalidate buildings once their blocks stopped changing
+        if (time % REVALIDATION_DELAY == 0 && !changedBuildings.isEmpty()) {
+            IntArrayList due = new IntArrayList();
+            for (Int2LongMap.Entry entry : changedBuildings.int2LongEntrySet()) {
+                if (time - entry.getLongValue() >= REVALIDATION_DELAY) {
+                    due.add(entry.getIntKey());
+                }
+            }
+            for (int id : due.toIntArray()) {
+                revalidateBuilding(id);
+            }
         }
 
         reapers.tick(world);
@@ -234,9 +361,30 @@ public class VillageManager extends PersistentState implements Iterable<Village>
     //adds a potential block to the processing queue
     public void reportBuilding(BlockPos pos) {
         //mark in cache
-        cache.add(pos);
+        buildingQueue.markReported(pos, world.getTime());
+
+        boolean inVillage = findNearestVillage(pos, Village.BORDER_MARGIN).isPresent();
+        buildingQueue.add(pos, inVillage ? BuildingQueue.Priority.VILLAGE : BuildingQueue.Priority.WILDERNESS);
+    }
+
+    //queues a rescan requested by a player, ahead of everything reported by villagers
+    public void reportBuildingByPlayer(BlockPos pos) {
+        buildingQueue.add(pos, BuildingQueue.Priority.PLAYER);
+    }
 
-        buildingQueue.add(pos);
+    public boolean isReported(BlockPos pos) {
+        return buildingQueue.isReported(pos);
+    }
+
+    public int getBuildingQueueSize() {
+        return buildingQueue.size();
+    }
+
+    /**
+     * @return the processed building reports per second
+     */
+    public float getBuildingDrainRate() {
+        return buildingQueue.getDrainRate();
     }
 
     public Building.validationResult processBuilding(BlockPos pos) {
@@ -245,12 +393,7 @@ public class VillageManager extends PersistentState implements Iterable<Village>
 
     private BuildingType getGroupedBuildingType(BlockPos pos) {
         Block block = world.getBlockState(pos).getBlock();
-        for (BuildingType bt : API.getVillagePool()) {
-            if (bt.grouped() && bt.getBlockToGroup().containsKey(Registry.BLOCK.getId(block))) {
-                return bt;
-            }
-        }
-        return null;
+        return API.getVillagePool().getMatcher().getGroupedType(Registry.BLOCK.getId(block));
     }
 
     //returns the scan-source blocks of all buildings, used to check for overlaps
@@ -261,8 +404,138 @@ public class VillageManager extends PersistentState implements Iterable<Village>
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Called for every block which changed into a different block.
+     * Removed building blocks are taken out right away, everything else which might change a building schedules a revalidation.
+     */
+    public void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState) {
+        scanner.onBlockChanged(pos);
+
+        for (Village village : index.query(pos)) {
+            village.getBuildingsAt(pos).toList().forEach(building -> onBlockChanged(building, pos, oldState, newState));
+        }
+    }
+
+    private void onBlockChanged(Building building, BlockPos pos, BlockState oldState, BlockState newState) {
+        boolean grouped = building.getBuildingType().grouped();
+
+        if (building.hasBlock(oldState.getBlock(), pos)) {
+            building.removeBlock(oldState.getBlock(), pos);
+            if (grouped ? building.getBlockPosStream().findAny().isEmpty() : !building.getType().equals("blocked") && !building.determineType()) {
+                markChanged(building);
+            }
+            markDirty();
+        }
+
+        //grouped buildings are made of their blocks only, everything else is picked up by the flood fill
+        if (grouped) {
+            return;
+        }
+
+        boolean structural = oldState.isAir() != newState.isAir()
+                || oldState.getBlock() instanceof DoorBlock || newState.getBlock() instanceof DoorBlock
+                || oldState.isIn(BlockTags.LEAVES) || newState.isIn(BlockTags.LEAVES);
+        if (structural || API.getVillagePool().getMatcher().isRelevant(Registry.BLOCK.getId(newState.getBlock()))) {
+            markChanged(building);
+        }
+    }
+
+    private void markChanged(Building building) {
+        changedBuildings.put(building.getId(), world.getTime());
+    }
+
+    private boolean isChanged(Building building) {
+        return changedBuildings.containsKey(building.getId());
+    }
+
+    private void revalidateBuilding(int id) {
+        changedBuildings.remove(id);
+        Village village = villages.get(mapBuildingToVillage(id));
+        Optional<Building> building = Optional.ofNullable(village).flatMap(v -> v.getBuilding(id));
+        if (building.isEmpty()) {
+            return;
+        }
+
+        if (building.get().getBuildingType().grouped()) {
+            building.get().validateBlocks(world);
+            if (building.get().getBlockPosStream().findAny().isEmpty()) {
+                village.removeBuilding(id);
+                if (village.getBuildings().isEmpty()) {
+                    dropVillage(village.getId());
+                }
+            }
+            markDirty();
+        } else {
+            processBuildingAsync(building.get().getSourceBlock(), true, false);
+        }
+    }
+
+    /**
+     * Same as {@link #processBuilding(BlockPos, boolean, boolean)}, but the flood fills run on the worker pool.
+     * The returned future completes on the server thread once the result has been committed.
+     */
+    public CompletableFuture<Building.validationResult> processBuildingAsync(BlockPos pos, boolean enforce, boolean strictScan) {
+        Map<BlockPos, Building.Scan> scans = prepareScans(pos, enforce, strictScan);
+        if (scans.isEmpty()) {
+            return CompletableFuture.completedFuture(processBuilding(pos, enforce, strictScan));
+        }
+
+        return scanner.scan(scans.values())
+                .thenApply(v -> processBuilding(pos, enforce, strictScan, scans))
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        MCA.LOGGER.error("Failed to process building at " + pos, e);
+                    }
+                });
+    }
+
+    //collects the flood fills processBuilding is going to need, keyed by their source block
+    private Map<BlockPos, Building.Scan> prepareScans(BlockPos pos, boolean enforce, boolean strictScan) {
+        Map<BlockPos, Building.Scan> scans = new HashMap<>();
+        if (getGroupedBuildingType(pos) != null) {
+            return scans;
+        }
+
+        Optional<Village> optionalVillage = findNearestVillage(pos, Village.MERGE_MARGIN);
+        Set<BlockPos> blocked = optionalVillage.map(this::getBlockedSet).orElseGet(HashSet::new);
+
+        boolean found = false;
+        if (optionalVillage.isPresent()) {
+            for (Building b : optionalVillage.get().getBuildings().values()) {
+                if (b.containsPos(pos)) {
+                    if (!enforce) {
+                        found = true;
+                    }
+                    if (enforce || isChanged(b)) {
+                        scans.put(b.getSourceBlock(), b.prepareScan(blocked));
+                    }
+                }
+            }
+        }
+
+        if (!found && !blocked.contains(pos)) {
+            scans.put(pos, new Building(pos, strictScan).prepareScan(blocked));
+        }
+
+        return scans;
+    }
+
+    //validates a building, using the matching prepared scan if there is one
+    private Building.validationResult validateBuilding(Building building, Set<BlockPos> blocked, Map<BlockPos, Building.Scan> scans) {
+        changedBuildings.remove(building.getId());
+        Building.Scan scan = scans.remove(building.getSourceBlock());
+        if (scan != null && scan.matches(building, blocked)) {
+            return building.apply(scan, world.getTime());
+        }
+        return building.validateBuilding(world, blocked);
+    }
+
     //processed a building at given position
     public Building.validationResult processBuilding(BlockPos pos, boolean enforce, boolean strictScan) {
+        return processBuilding(pos, enforce, strictScan, new HashMap<>());
+    }
+
+    private Building.validationResult processBuilding(BlockPos pos, boolean enforce, boolean strictScan, Map<BlockPos, Building.Scan> scans) {
         //find the closest village
         Optional<Village> optionalVillage = findNearestVillage(pos, Village.MERGE_MARGIN);
 
@@ -284,8 +557,7 @@ public class VillageManager extends PersistentState implements Iterable<Village>
                 double range = groupedBuildingType.mergeRange() * groupedBuildingType.mergeRange();
 
                 //add POI to the nearest one
-                Optional<Building> building = village.getBuildings().values().stream()
-                        .filter(b -> b.getType().equals(name))
+                Optional<Building> building = village.getBuildingsOfType(name)
                         .min((a, b) -> (int)(a.getCenter().getSquaredDistance(pos) - b.getCenter().getSquaredDistance(pos)))
                         .filter(b -> b.getCenter().getSquaredDistance(pos) < range);
 
@@ -301,7 +573,7 @@ public class VillageManager extends PersistentState implements Iterable<Village>
                         if (!enforce) {
                             found = true;
                         }
-                        if ((enforce || world.getTime() - b.getLastScan() > Building.SCAN_COOLDOWN) && b.validateBuilding(world, blocked) != Building.validationResult.SUCCESS) {
+                        if ((enforce || isChanged(b)) && validateBuilding(b, blocked, scans) != Building.validationResult.SUCCESS) {
                             toRemove.add(b.getId());
                         }
                     }
@@ -310,10 +582,11 @@ public class VillageManager extends PersistentState implements Iterable<Village>
 
             //verify all poi buildings
             village.getBuildings().values().stream()
-                    .filter(b -> enforce || world.getTime() - b.getLastScan() > Building.SCAN_COOLDOWN)
+                    .filter(b -> enforce || isChanged(b))
                     .filter(b -> b.getBuildingType().grouped())
                     .filter(b -> b.getCenter().getSquaredDistance(pos) < 1024.0)
                     .forEach(b -> {
+                        changedBuildings.remove(b.getId());
                         b.validateBlocks(world);
                         if (b.getBlockPosStream().findAny().isEmpty()) {
                             toRemove.add(b.getId());
@@ -328,7 +601,7 @@ public class VillageManager extends PersistentState implements Iterable<Village>
 
             //village is empty
             if (village.getBuildings().isEmpty()) {
-                villages.remove(village.getId());
+                dropVillage(village.getId());
                 optionalVillage = Optional.empty();
                 markDirty();
             }
@@ -347,7 +620,7 @@ public class VillageManager extends PersistentState implements Iterable<Village>
                 building.addPOI(world, pos);
             } else {
                 //check its boundaries, count the blocks, etc
-                Building.validationResult result = building.validateBuilding(world, blocked);
+                Building.validationResult result = validateBuilding(building, blocked, scans);
                 if (result == Building.validationResult.SUCCESS) {
                     //the building is valid, but might be identical to an old one with an existing one
                     if (village.getBuildings().values().stream().anyMatch(b -> b.isIdentical(building))) {
@@ -360,24 +633,24 @@ public class VillageManager extends PersistentState implements Iterable<Village>
             }
 
             //add to building list
-            villages.put(village.getId(), village);
+            addVillage(village);
             building.setId(lastBuildingId++);
-            village.getBuildings().put(building.getId(), building);
+            village.addBuilding(building);
             village.calculateDimensions();
             buildingToVillages.put(building.getId(), village.getId());
 
             //attempt to merge
-            villages.values().stream()
+            index.query(village.getBox()).stream()
                     .filter(v -> v != village)
-                    .filter(v -> v.getBox().expand(Village.MERGE_MARGIN).intersects(village.getBox()))
+                    .filter(v -> v.getBox().intersects(village.getBox(), Village.MERGE_MARGIN))
                     .findAny()
                     .ifPresent(v -> {
                                 if (v.getPopulation() > village.getPopulation()) {
                                     merge(v, village);
-                                    villages.remove(village.getId());
+                                    dropVillage(village.getId());
                                 } else {
                                     merge(village, v);
-                                    villages.remove(v.getId());
+                                    dropVillage(v.getId());
                                 }
                             }
                     );
@@ -0,0 +1,59 @@
+package net.mca.server.world.data;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The saved state of a single village, stored in its own file next to the {@link VillageManager}.
+ * A shard is dirty whenever its village is, so an autosave only rewrites the villages which changed.
+ */
+class VillageShard extends AsyncPersistentState {
+    @Nullable
+    private final Village village;
+
+    VillageShard(Village village) {
+        this.village = village;
+    }
+
+    VillageShard(NbtCompound nbt) {
+        if (nbt.contains("village", NbtElement.COMPOUND_TYPE)) {
+            village = new Village();
+            village.load(nbt.getCompound("village"));
+            //loading adds every building, which marks the village as changed
+            village.setDirty(false);
+        } else {
+            village = null;
+        }
+    }
+
+    static String getId(int villageId) {
+        return "mca_village_" + villageId;
+    }
+
+    @Nullable
+    public Village getVillage() {
+        return village;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return super.isDirty() || village != null && village.isDirty();
+    }
+
+    @Override
+    public void setDirty(boolean dirty) {
+        super.setDirty(dirty);
+        if (village != null) {
+            village.setDirty(dirty);
+        }
+    }
+
+    @Override
+    public NbtCompound writeNbt(NbtCompound nbt) {
+        if (village != null) {
+            nbt.put("village", village.save());
+        }
+        return nbt;
+    }
+}
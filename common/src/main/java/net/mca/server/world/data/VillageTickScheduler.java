@@ -0,0 +1,75 @@
+package net.mca.server.world.data;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.mca.Config;
+import net.minecraft.server.world.ServerWorld;
+
+import java.util.Map;
+
+/**
+ * Runs the periodic {@link Village.Job}s of all villages.
+ * Each village and job gets its own phase within the period, derived from the village id, so villages no longer do their work on the same tick.
+ * Due jobs beyond the per-tick budget are carried over to the next ticks, they still run once per period.
+ * Villages whose center is not loaded are dormant: their jobs are skipped and caught up once one of them is due while the village is loaded again.
+ */
+class VillageTickScheduler {
+    private static final Village.Job[] JOBS = Village.Job.values();
+
+    /**
+     * Due jobs, packed as village id and job ordinal, in the order they became due.
+     */
+    private final LongLinkedOpenHashSet pending = new LongLinkedOpenHashSet();
+
+    public void tick(Map<Integer, Village> villages, ServerWorld world, long time) {
+        for (Village village : villages.values()) {
+            for (Village.Job job : JOBS) {
+                int period = Math.max(1, job.getPeriod());
+                if (Math.floorMod(time + getPhase(village.getId(), job), period) == 0) {
+                    if (village.isLoaded(world)) {
+                        if (village.isDormant()) {
+                            village.wake(world, time);
+                        }
+                        pending.add(pack(village.getId(), job));
+                    } else {
+                        village.suspendJob(time);
+                    }
+                }
+            }
+        }
+
+        int budget = Config.getInstance().villageJobsPerTick;
+        while (budget-- > 0 && !pending.isEmpty()) {
+            long entry = pending.removeFirstLong();
+            Village village = villages.get((int)(entry >> 8));
+            if (village != null) {
+                village.runJob(JOBS[(int)(entry & 0xFF)], world, time);
+            }
+        }
+    }
+
+    /**
+     * @return how often the job of the given village became due within [from, to)
+     */
+    static int countDue(int villageId, Village.Job job, long from, long to) {
+        return countDue(Math.max(1, job.getPeriod()), getPhase(villageId, job), from, to);
+    }
+
+    /**
+     * @return how many ticks t within [from, to) satisfy (t + phase) mod period == 0, the same condition {@link #tick} uses
+     */
+    static int countDue(long period, long phase, long from, long to) {
+        if (to <= from) {
+            return 0;
+        }
+        return (int)(Math.floorDiv(to - 1 + phase, period) - Math.floorDiv(from - 1 + phase, period));
+    }
+
+    private static long getPhase(int villageId, Village.Job job) {
+        return HashCommon.murmurHash3(villageId * JOBS.length + job.ordinal()) & 0x7FFFFFFF;
+    }
+
+    private static long pack(int villageId, Village.Job job) {
+        return (long)villageId << 8 | job.ordinal();
+    }
+}
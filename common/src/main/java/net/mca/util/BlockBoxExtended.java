@@ -1,6 +1,7 @@
 package net.mca.util;
 
 import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.Vec3i;
 
 public class BlockBoxExtended extends BlockBox {
     public BlockBoxExtended(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
@@ -23,6 +24,28 @@ public class BlockBoxExtended extends BlockBox {
         );
     }
 
+    /**
+     * Same as {@code expand(x, y, z).contains(pos)}, without creating a new box.
+     */
+    public boolean contains(Vec3i pos, int x, int y, int z) {
+        return pos.getX() >= getMinX() - x && pos.getX() <= getMaxX() + x
+                && pos.getY() >= getMinY() - y && pos.getY() <= getMaxY() + y
+                && pos.getZ() >= getMinZ() - z && pos.getZ() <= getMaxZ() + z;
+    }
+
+    public boolean contains(Vec3i pos, int margin) {
+        return contains(pos, margin, margin, margin);
+    }
+
+    /**
+     * Same as {@code expand(margin).intersects(other)}, without creating a new box.
+     */
+    public boolean intersects(BlockBox other, int margin) {
+        return getMaxX() + margin >= other.getMinX() && getMinX() - margin <= other.getMaxX()
+                && getMaxZ() + margin >= other.getMinZ() && getMinZ() - margin <= other.getMaxZ()
+                && getMaxY() + margin >= other.getMinY() && getMinY() - margin <= other.getMaxY();
+    }
+
     public int getMaxBlockCount() {
         return Math.max(Math.max(getBlockCountX(), getBlockCountY()), getBlockCountZ());
     }
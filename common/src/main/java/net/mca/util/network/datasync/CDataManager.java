@@ -17,12 +17,20 @@ public class CDataManager<E extends Entity> {
     private final Map<CParameter<?, ?>, Entry<E, ?, ?>> forwardLookup = new HashMap<>();
     private final Map<TrackedData<?>, Entry<E, ?, ?>> backwardLookup = new HashMap<>();
 
+    private final int serverParams;
+
     private CDataManager(List<Entry<E, ?, ?>> params) {
         this.params = params;
-        params.forEach(param -> {
+        int serverParams = 0;
+        for (Entry<E, ?, ?> param : params) {
             forwardLookup.put(param.parameter, param);
-            backwardLookup.put(param.data, param);
-        });
+            if (param.data != null) {
+                backwardLookup.put(param.data, param);
+            } else {
+                param.index = serverParams++;
+            }
+        }
+        this.serverParams = serverParams;
     }
 
     public boolean isParam(CParameter<?, ?> parameter, TrackedData<?> data) {
@@ -33,13 +41,13 @@ public class CDataManager<E extends Entity> {
     @SuppressWarnings({"unchecked", "RedundantSuppression"})
     public <T, TrackedType> T get(E entity, CParameter<T, TrackedType> parameter) {
         //noinspection RedundantCast
-        return parameter.get(((Entry<E, T, TrackedType>)forwardLookup.get(parameter)).data, entity.getDataTracker());
+        return ((Entry<E, T, TrackedType>)forwardLookup.get(parameter)).get(entity);
     }
 
     @SuppressWarnings({"unchecked", "RedundantSuppression"})
     public <T, TrackedType> void set(E entity, CParameter<T, TrackedType> parameter, T value) {
         //noinspection RedundantCast
-        parameter.set(((Entry<E, T, TrackedType>)forwardLookup.get(parameter)).data, entity.getDataTracker(), value);
+        ((Entry<E, T, TrackedType>)forwardLookup.get(parameter)).set(entity, value);
     }
 
     //register all entries
@@ -55,6 +63,19 @@ public class CDataManager<E extends Entity> {
         params.forEach(p -> p.save(entity, nbt));
     }
 
+    /**
+     * Creates the store for {@link SyncPolicy#SERVER} parameters of one entity, filled with default values.
+     */
+    public Store createStore() {
+        Store store = new Store(serverParams);
+        params.stream().filter(p -> p.data == null).forEach(p -> store.values[p.index] = p.parameter.getDefaultValue());
+        return store;
+    }
+
+    private static Store getStore(Entity entity) {
+        return ((CTrackedEntity<?>)entity).getServerData();
+    }
+
     public static class Builder<E extends Entity> {
         private final Class<E> type;
         private final List<Entry<E, ?, ?>> params = new ArrayList<>();
@@ -64,7 +85,11 @@ public class CDataManager<E extends Entity> {
         }
 
         public Builder<E> addAll(CParameter<?, ?> ...params) {
-            Stream.of(params).map(p -> new Entry<>(type, p)).forEach(this.params::add);
+            return addAll(SyncPolicy.BROADCAST, params);
+        }
+
+        public Builder<E> addAll(SyncPolicy policy, CParameter<?, ?> ...params) {
+            Stream.of(params).map(p -> new Entry<>(type, p, policy)).forEach(this.params::add);
             return this;
         }
 
@@ -77,26 +102,56 @@ public class CDataManager<E extends Entity> {
         }
     }
 
+    /**
+     * Plain field storage for parameters which are not synced.
+     */
+    public static final class Store {
+        private final Object[] values;
+
+        private Store(int size) {
+            values = new Object[size];
+        }
+    }
+
     private static class Entry<E extends Entity, T, TrackedType> {
         CParameter<T, TrackedType> parameter;
         TrackedData<TrackedType> data;
+        int index;
 
-        public Entry(Class<E> type, CParameter<T, TrackedType> parameter) {
+        public Entry(Class<E> type, CParameter<T, TrackedType> parameter, SyncPolicy policy) {
             this.parameter = parameter;
-            this.data = parameter.createParam(type);
+            this.data = policy == SyncPolicy.BROADCAST ? parameter.createParam(type) : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(E entity) {
+            if (data == null) {
+                return (T)getStore(entity).values[index];
+            }
+            return parameter.get(data, entity.getDataTracker());
+        }
+
+        public void set(E entity, T value) {
+            if (data == null) {
+                getStore(entity).values[index] = value;
+            } else {
+                parameter.set(data, entity.getDataTracker(), value);
+            }
         }
 
         public void save(E entity, NbtCompound nbt) {
-            parameter.save(nbt, parameter.get(data, entity.getDataTracker()));
+            parameter.save(nbt, get(entity));
         }
 
         //load entity from nbt
         public void load(E entity, NbtCompound nbt) {
-            parameter.set(data, entity.getDataTracker(), parameter.load(nbt));
+            set(entity, parameter.load(nbt));
         }
 
         public void register(E entity) {
-            entity.getDataTracker().startTracking(data, parameter.getDefault());
+            if (data != null) {
+                entity.getDataTracker().startTracking(data, parameter.getDefault());
+            }
         }
     }
 }
@@ -33,6 +33,11 @@ public class CDataParameter<T> implements CParameter<T, T> {
         return defaultValue;
     }
 
+    @Override
+    public T getDefaultValue() {
+        return defaultValue;
+    }
+
     @Override
     public T get(TrackedData<T> param, DataTracker tracker) {
         return tracker.get(param);
@@ -27,6 +27,12 @@ public class CEnumParameter<T extends Enum<T>> implements CParameter<T, Integer>
         return defaultValue == null ? -1 : defaultValue.ordinal();
     }
 
+    @Override
+    @Nullable
+    public T getDefaultValue() {
+        return defaultValue;
+    }
+
     @Override
     public T get(TrackedData<Integer> param, DataTracker tracker) {
         return fromIndex(tracker.get(param));
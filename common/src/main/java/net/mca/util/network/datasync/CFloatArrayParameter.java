@@ -0,0 +1,90 @@
+package net.mca.util.network.datasync;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.data.DataTracker;
+import net.minecraft.entity.data.TrackedData;
+import net.minecraft.entity.data.TrackedDataHandlerRegistry;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+
+import java.util.Arrays;
+
+/**
+ * A fixed size float array synced as a single tracked entry, while every element is saved under its own key.
+ */
+public class CFloatArrayParameter implements CParameter<float[], NbtCompound> {
+    private final String[] keys;
+
+    private final float defaultValue;
+
+    public CFloatArrayParameter(String[] keys, float defaultValue) {
+        this.keys = keys;
+        this.defaultValue = defaultValue;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public NbtCompound getDefault() {
+        return encode(getDefaultValue());
+    }
+
+    @Override
+    public float[] getDefaultValue() {
+        float[] values = new float[keys.length];
+        Arrays.fill(values, defaultValue);
+        return values;
+    }
+
+    @Override
+    public float[] get(TrackedData<NbtCompound> param, DataTracker tracker) {
+        return decode(tracker.get(param));
+    }
+
+    @Override
+    public void set(TrackedData<NbtCompound> param, DataTracker tracker, float[] v) {
+        tracker.set(param, encode(v));
+    }
+
+    @Override
+    public float[] load(NbtCompound nbt) {
+        float[] values = new float[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = nbt.contains(keys[i], NbtElement.NUMBER_TYPE) ? nbt.getFloat(keys[i]) : defaultValue;
+        }
+        return values;
+    }
+
+    @Override
+    public void save(NbtCompound nbt, float[] value) {
+        for (int i = 0; i < keys.length; i++) {
+            nbt.putFloat(keys[i], value[i]);
+        }
+    }
+
+    @Override
+    public TrackedData<NbtCompound> createParam(Class<? extends Entity> type) {
+        return DataTracker.registerData(type, TrackedDataHandlerRegistry.NBT_COMPOUND);
+    }
+
+    private NbtCompound encode(float[] values) {
+        int[] bits = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            bits[i] = Float.floatToIntBits(values[i]);
+        }
+        NbtCompound nbt = new NbtCompound();
+        nbt.putIntArray("v", bits);
+        return nbt;
+    }
+
+    private float[] decode(NbtCompound nbt) {
+        int[] bits = nbt.getIntArray("v");
+        float[] values = getDefaultValue();
+        for (int i = 0; i < Math.min(bits.length, values.length); i++) {
+            values[i] = Float.intBitsToFloat(bits[i]);
+        }
+        return values;
+    }
+}
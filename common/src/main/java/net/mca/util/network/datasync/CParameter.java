@@ -62,6 +62,11 @@ public interface CParameter<T, TrackedType> {
 
     TrackedType getDefault();
 
+    /**
+     * The default value, as opposed to its tracked representation returned by {@link #getDefault()}.
+     */
+    T getDefaultValue();
+
     T get(TrackedData<TrackedType> param, DataTracker tracker);
 
     void set(TrackedData<TrackedType> param, DataTracker tracker, T v);
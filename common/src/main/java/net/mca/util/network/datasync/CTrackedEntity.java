@@ -6,6 +6,12 @@ public interface CTrackedEntity<T extends Entity> {
 
     CDataManager<T> getTypeDataManager();
 
+    /**
+     * The values of {@link SyncPolicy#SERVER} parameters. Implementations create it lazily,
+     * as tracked data is registered from within the entity constructor.
+     */
+    CDataManager.Store getServerData();
+
     @SuppressWarnings("unchecked")
     default <P, TrackedP> void setTrackedValue(CParameter<P, TrackedP> key, P value) {
         getTypeDataManager().set((T)this, key, value);
@@ -0,0 +1,16 @@
+package net.mca.util.network.datasync;
+
+/**
+ * Controls whether a {@link CParameter} is synced to clients.
+ */
+public enum SyncPolicy {
+    /**
+     * Registered as vanilla tracked data and synced to every client tracking the entity.
+     */
+    BROADCAST,
+
+    /**
+     * Kept in a plain per entity store and never sent to clients, which only see the default value.
+     */
+    SERVER
+}
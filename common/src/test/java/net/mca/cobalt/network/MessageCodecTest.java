@@ -0,0 +1,228 @@
+package net.mca.cobalt.network;
+
+import io.netty.buffer.Unpooled;
+import net.mca.client.gui.Constraint;
+import net.mca.entity.ai.relationship.Gender;
+import net.mca.entity.ai.relationship.RelationshipState;
+import net.mca.network.MessagesMCA;
+import net.mca.network.c2s.*;
+import net.mca.network.s2c.*;
+import net.mca.resources.Rank;
+import net.mca.resources.data.SerializablePair;
+import net.mca.server.world.data.BabyTracker;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Encodes a sample of every message registered with a binary codec, decodes it again and compares all fields.
+ */
+class MessageCodecTest {
+    private static final UUID UUID_A = UUID.fromString("3f1d2c4b-5a69-4788-9aa1-0b2c3d4e5f60");
+    private static final UUID UUID_B = UUID.fromString("c0ffee00-1234-4abc-8def-001122334455");
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        new NetworkHandler.Impl() {
+            @Override
+            public <T extends Message> void registerMessage(Class<T> msg) {
+            }
+
+            @Override
+            public void sendToServer(Message m) {
+            }
+
+            @Override
+            public void sendToPlayer(Message m, ServerPlayerEntity e) {
+            }
+        };
+        MessagesMCA.bootstrap();
+    }
+
+    private static NbtCompound sampleNbt() {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putString("villagerName", "Robin");
+        nbt.putInt("gender", 2);
+        nbt.putUuid("tree_father_uuid", UUID_B);
+        NbtCompound nested = new NbtCompound();
+        nested.putLongArray("ids", new long[] {1, 2, 3});
+        nbt.put("nested", nested);
+        return nbt;
+    }
+
+    private static NbtCompound sampleChild() {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putUuid("id", UUID_A);
+        nbt.putString("gender", Gender.FEMALE.getStrName());
+        nbt.putBoolean("infected", true);
+        NbtList key = new NbtList();
+        key.add(NbtString.of(UUID_A.toString()));
+        key.add(NbtString.of(UUID_B.toString()));
+        nbt.put("key", key);
+        nbt.putLong("seed", 42);
+        nbt.putString("name", "Sam");
+        return nbt;
+    }
+
+    private static List<Message> samples() {
+        return List.of(
+                // c2s
+                new BabyNameRequest(Gender.FEMALE),
+                new BabyNamingVillagerMessage(3, "Alex"),
+                new CallToPlayerMessage(UUID_A),
+                new DamageItemMessage(new Identifier("mca", "needle_and_thread")),
+                new DestinyMessage("minecraft:village", true),
+                new DestinyMessage(false),
+                new FamilyTreeUUIDLookup("Alex"),
+                new GetChildDataRequest(UUID_A),
+                new GetFamilyRequest(),
+                new GetFamilyTreeRequest(UUID_B),
+                new GetInteractDataRequest(UUID_A),
+                new GetVillageRequest(new Identifier("minecraft", "the_nether"), 4, 17L),
+                new GetVillageRequest(null, -1, -1),
+                new GetVillagerRequest(UUID_B),
+                new InteractionCloseRequest(UUID_A),
+                new InteractionDialogueInitMessage(UUID_B),
+                new InteractionDialogueMessage(UUID_A, "root", "greet"),
+                new InteractionVillagerMessage("gui.button.gift", UUID_B),
+                new PlayerDataRequest(UUID_A),
+                new RenameVillageMessage(2, "Rivertown"),
+                new ReportBuildingMessage(ReportBuildingMessage.Action.FORCE_TYPE, "blacksmith"),
+                new ReportBuildingMessage(ReportBuildingMessage.Action.ADD),
+                new SaveVillageMessage(5, 10, 75, 50),
+                new SkinListRequest(),
+                new VillagerEditorSyncRequest("sync", UUID_A, sampleNbt()),
+                new VillagerNameRequest(Gender.MALE),
+
+                // s2c
+                new BabyNameResponse("Robin"),
+                new FamilyTreeUUIDResponse(List.of(
+                        new SerializablePair<>(UUID_A, new SerializablePair<>("Father", "Mother")),
+                        new SerializablePair<>(UUID_B, new SerializablePair<>("", ""))
+                )),
+                new GetChildDataResponse(new BabyTracker.ChildSaveState(sampleChild())),
+                new GetFamilyResponse(sampleNbt()),
+                new GetInteractDataResponse(EnumSet.of(Constraint.ADULT, Constraint.NOT_SPOUSE), "Father", null, "Partner", RelationshipState.MARRIED_TO_VILLAGER),
+                new GetVillageFailedResponse(),
+                new GetVillageResponse(sampleNbt(), false, Rank.NOBLE, -12, true, new HashSet<>(Set.of("a", "b")), 123456789L, -987654321L),
+                new GetVillagerResponse(sampleNbt()),
+                new InteractionDialogueResponse("root", List.of("greet", "gift"), true),
+                new OpenDestinyGuiRequest(12, true),
+                new OpenGuiRequest(OpenGuiRequest.Type.BLUEPRINT, 7),
+                new PlayerDataMessage(UUID_B, sampleNbt()),
+                new ShowToastRequest("server.title", "server.message"),
+                new SkinListResponse(1L, -2L),
+                new VillagerMemoriesMessage(9, sampleNbt()),
+                new VillagerNameResponse("Kim")
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Message> T roundTrip(T message) {
+        PacketByteBuf b = new PacketByteBuf(Unpooled.buffer());
+        message.encode(b);
+        T decoded = NetworkHandler.decode((Class<T>)message.getClass(), b);
+        assertEquals(0, b.readableBytes(), message.getClass().getSimpleName() + " left unread bytes");
+        return decoded;
+    }
+
+    @Test
+    void everyCodecHasASample() {
+        Set<Class<?>> sampled = samples().stream().map(Object::getClass).collect(Collectors.toSet());
+        for (Class<? extends Message> type : NetworkHandler.getCodecMessages()) {
+            if (type != MessageBundle.class) {
+                assertTrue(sampled.contains(type), "no sample for " + type.getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    void roundTrip() {
+        for (Message message : samples()) {
+            assertDeepEquals(message.getClass().getSimpleName(), message, roundTrip(message));
+        }
+    }
+
+    @Test
+    void bundleRoundTrip() {
+        List<Message> messages = samples();
+        MessageBundle bundle = new MessageBundle();
+        messages.forEach(m -> {
+            PacketByteBuf encoded = new PacketByteBuf(Unpooled.buffer());
+            m.encode(encoded);
+            assertTrue(bundle.fits(encoded.readableBytes()));
+            bundle.add(NetworkHandler.getMessageIndex(m.getClass()), encoded);
+        });
+
+        MessageBundle decoded = roundTrip(bundle);
+        assertEquals(messages.size(), decoded.getMessages().size());
+        for (int i = 0; i < messages.size(); i++) {
+            assertDeepEquals("bundle[" + i + "]", messages.get(i), decoded.getMessages().get(i));
+        }
+    }
+
+    /**
+     * Compares by equals where a class defines it, otherwise element by element or field by field.
+     */
+    private static void assertDeepEquals(String path, Object expected, Object actual) {
+        if (expected == null || actual == null) {
+            assertEquals(expected, actual, path);
+        } else if (expected instanceof List<?> e && actual instanceof List<?> a) {
+            assertEquals(e.size(), a.size(), path + ".size");
+            for (int i = 0; i < e.size(); i++) {
+                assertDeepEquals(path + "[" + i + "]", e.get(i), a.get(i));
+            }
+        } else if (expected instanceof Set<?> || expected instanceof Map<?, ?>) {
+            assertEquals(expected, actual, path);
+        } else if (expected.getClass().isArray()) {
+            assertEquals(Array.getLength(expected), Array.getLength(actual), path + ".length");
+            for (int i = 0; i < Array.getLength(expected); i++) {
+                assertDeepEquals(path + "[" + i + "]", Array.get(expected, i), Array.get(actual, i));
+            }
+        } else {
+            assertEquals(expected.getClass(), actual.getClass(), path);
+            if (definesEquals(expected.getClass())) {
+                assertEquals(expected, actual, path);
+            } else {
+                for (Class<?> c = expected.getClass(); c != Object.class; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers())) {
+                            field.setAccessible(true);
+                            try {
+                                assertDeepEquals(path + "." + field.getName(), field.get(expected), field.get(actual));
+                            } catch (IllegalAccessException ex) {
+                                fail(path + "." + field.getName(), ex);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean definesEquals(Class<?> c) {
+        try {
+            return c.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
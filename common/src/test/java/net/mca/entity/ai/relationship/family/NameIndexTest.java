@@ -0,0 +1,94 @@
+package net.mca.entity.ai.relationship.family;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameIndexTest {
+    private static final UUID A = new UUID(0, 1);
+    private static final UUID B = new UUID(0, 2);
+    private static final UUID C = new UUID(0, 3);
+    private static final UUID D = new UUID(0, 4);
+
+    private static List<String> allNames(NameIndex index) {
+        return index.getNamesWithPrefix("", Integer.MAX_VALUE);
+    }
+
+    @Test
+    void exactLookupIgnoresCase() {
+        NameIndex index = new NameIndex();
+        index.add(A, "Alex");
+        index.add(B, "ALEX");
+        index.add(C, "Alexander");
+
+        assertEquals(Set.of(A, B), Set.copyOf(index.get("alex")));
+        assertEquals(Set.of(A, B), Set.copyOf(index.get("Alex")));
+        assertEquals(List.of(C), index.get("alexANDER"));
+        assertTrue(index.get("Ale").isEmpty());
+        assertTrue(index.get("Bob").isEmpty());
+    }
+
+    @Test
+    void addingTwiceKeepsOneId() {
+        NameIndex index = new NameIndex();
+        index.add(A, "Alex");
+        index.add(A, "alex");
+        assertEquals(List.of(A), index.get("Alex"));
+    }
+
+    @Test
+    void prefixSearch() {
+        NameIndex index = new NameIndex();
+        index.add(A, "Bob");
+        index.add(B, "alex");
+        index.add(C, "Alexander");
+        index.add(D, "Albert");
+
+        assertEquals(List.of("Albert", "alex", "Alexander"), index.getNamesWithPrefix("AL", 10));
+        assertEquals(List.of("alex", "Alexander"), index.getNamesWithPrefix("alex", 10));
+        assertEquals(List.of("Albert", "alex"), index.getNamesWithPrefix("al", 2));
+        assertEquals(List.of(), index.getNamesWithPrefix("al", 0));
+        assertEquals(List.of("Bob"), index.getNamesWithPrefix("b", 10));
+        assertEquals(List.of(), index.getNamesWithPrefix("c", 10));
+        assertEquals(List.of(), index.getNamesWithPrefix("Bobby", 10));
+    }
+
+    @Test
+    void removeDropsEmptyNames() {
+        NameIndex index = new NameIndex();
+        index.add(A, "Alex");
+        index.add(B, "alex");
+        index.add(C, "Bob");
+
+        index.remove(A, "Alex");
+        assertEquals(List.of(B), index.get("alex"));
+        assertEquals(List.of("Alex", "Bob"), allNames(index));
+
+        index.remove(B, "ALEX");
+        assertTrue(index.get("alex").isEmpty());
+        assertEquals(List.of("Bob"), allNames(index));
+
+        //removing what is not there changes nothing
+        index.remove(B, "alex");
+        index.remove(D, "Bob");
+        assertEquals(List.of(C), index.get("Bob"));
+        assertEquals(List.of("Bob"), allNames(index));
+    }
+
+    @Test
+    void renameMovesTheId() {
+        NameIndex index = new NameIndex();
+        index.add(A, "Alex");
+
+        index.remove(A, "Alex");
+        index.add(A, "Robin");
+
+        assertTrue(index.get("Alex").isEmpty());
+        assertEquals(List.of(A), index.get("robin"));
+        assertEquals(List.of("Robin"), allNames(index));
+    }
+}
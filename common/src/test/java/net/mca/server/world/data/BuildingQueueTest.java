@@ -0,0 +1,87 @@
+package net.mca.server.world.data;
+
+import net.minecraft.util.math.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuildingQueueTest {
+    private static final BlockPos A = new BlockPos(1, 64, 1);
+    private static final BlockPos B = new BlockPos(2, 64, 2);
+    private static final BlockPos C = new BlockPos(3, 64, 3);
+
+    @Test
+    void ordersByPriorityThenReportTime() {
+        BuildingQueue queue = new BuildingQueue();
+        queue.add(A, BuildingQueue.Priority.WILDERNESS);
+        queue.add(B, BuildingQueue.Priority.VILLAGE);
+        queue.add(C, BuildingQueue.Priority.WILDERNESS);
+
+        assertEquals(BuildingQueue.Priority.VILLAGE, queue.peekPriority());
+        assertEquals(B, queue.poll());
+        assertEquals(A, queue.poll());
+        assertEquals(C, queue.poll());
+        assertNull(queue.poll());
+        assertNull(queue.peekPriority());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void upgradesPriorityWithoutDuplicates() {
+        BuildingQueue queue = new BuildingQueue();
+        queue.add(A, BuildingQueue.Priority.WILDERNESS);
+        queue.add(B, BuildingQueue.Priority.VILLAGE);
+        queue.add(A, BuildingQueue.Priority.PLAYER);
+
+        assertEquals(2, queue.size());
+        assertEquals(BuildingQueue.Priority.PLAYER, queue.peekPriority());
+        assertEquals(A, queue.poll());
+        assertEquals(B, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void neverDowngradesPriority() {
+        BuildingQueue queue = new BuildingQueue();
+        queue.add(A, BuildingQueue.Priority.PLAYER);
+        queue.add(B, BuildingQueue.Priority.VILLAGE);
+        queue.add(A, BuildingQueue.Priority.WILDERNESS);
+
+        assertEquals(2, queue.size());
+        assertEquals(A, queue.poll());
+        assertEquals(B, queue.poll());
+    }
+
+    @Test
+    void reportsExpire() {
+        BuildingQueue queue = new BuildingQueue();
+        queue.markReported(A, 1000);
+        queue.markReported(B, 5000);
+
+        queue.tick(25000);
+        assertTrue(queue.isReported(A));
+        assertTrue(queue.isReported(B));
+
+        queue.tick(25001);
+        assertFalse(queue.isReported(A));
+        assertTrue(queue.isReported(B));
+
+        queue.tick(29001);
+        assertFalse(queue.isReported(B));
+    }
+
+    @Test
+    void reportingAgainRenewsExpiry() {
+        BuildingQueue queue = new BuildingQueue();
+        queue.markReported(A, 1000);
+        queue.markReported(B, 2000);
+        queue.markReported(A, 3000);
+
+        queue.tick(26001);
+        assertFalse(queue.isReported(B));
+        assertTrue(queue.isReported(A));
+
+        queue.tick(27001);
+        assertFalse(queue.isReported(A));
+    }
+}
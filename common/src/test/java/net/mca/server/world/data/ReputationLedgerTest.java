@@ -0,0 +1,72 @@
+package net.mca.server.world.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReputationLedgerTest {
+    private static final UUID PLAYER_A = new UUID(1, 1);
+    private static final UUID PLAYER_B = new UUID(1, 2);
+    private static final UUID VILLAGER_A = new UUID(2, 1);
+    private static final UUID VILLAGER_B = new UUID(2, 2);
+    private static final UUID VILLAGER_C = new UUID(2, 3);
+
+    @Test
+    void setKeepsTotals() {
+        ReputationLedger ledger = new ReputationLedger();
+        assertTrue(ledger.set(PLAYER_A, VILLAGER_A, 10));
+        assertTrue(ledger.set(PLAYER_A, VILLAGER_B, -4));
+        assertTrue(ledger.set(PLAYER_B, VILLAGER_A, 3));
+        assertEquals(6, ledger.getTotal(PLAYER_A));
+        assertEquals(3, ledger.getTotal(PLAYER_B));
+
+        assertTrue(ledger.set(PLAYER_A, VILLAGER_A, 2));
+        assertEquals(-2, ledger.getTotal(PLAYER_A));
+        assertEquals(0, ledger.getTotal(new UUID(9, 9)));
+    }
+
+    @Test
+    void setReportsUnchangedValues() {
+        ReputationLedger ledger = new ReputationLedger();
+        assertTrue(ledger.set(PLAYER_A, VILLAGER_A, 5));
+        assertFalse(ledger.set(PLAYER_A, VILLAGER_A, 5));
+
+        //an explicit zero is a new entry
+        assertTrue(ledger.set(PLAYER_A, VILLAGER_B, 0));
+        assertFalse(ledger.set(PLAYER_A, VILLAGER_B, 0));
+        assertEquals(5, ledger.getTotal(PLAYER_A));
+    }
+
+    @Test
+    void retainUpdatesTotals() {
+        ReputationLedger ledger = new ReputationLedger();
+        ledger.set(PLAYER_A, VILLAGER_A, 10);
+        ledger.set(PLAYER_A, VILLAGER_B, 7);
+        ledger.set(PLAYER_A, VILLAGER_C, -3);
+        ledger.set(PLAYER_B, VILLAGER_C, 4);
+
+        assertTrue(ledger.retain(Set.of(VILLAGER_A, VILLAGER_B)));
+        assertEquals(17, ledger.getTotal(PLAYER_A));
+        assertEquals(0, ledger.getTotal(PLAYER_B));
+        assertFalse(ledger.asMap().containsKey(PLAYER_B));
+        assertEquals(Set.of(VILLAGER_A, VILLAGER_B), ledger.asMap().get(PLAYER_A).keySet());
+
+        assertFalse(ledger.retain(Set.of(VILLAGER_A, VILLAGER_B)));
+        assertEquals(17, ledger.getTotal(PLAYER_A));
+    }
+
+    @Test
+    void loadReplacesEverything() {
+        ReputationLedger ledger = new ReputationLedger();
+        ledger.set(PLAYER_B, VILLAGER_C, 4);
+        ledger.load(Map.of(PLAYER_A, Map.of(VILLAGER_A, 1, VILLAGER_B, 2)));
+
+        assertEquals(3, ledger.getTotal(PLAYER_A));
+        assertEquals(0, ledger.getTotal(PLAYER_B));
+        assertEquals(Set.of(PLAYER_A), ledger.asMap().keySet());
+    }
+}
@@ -0,0 +1,67 @@
+package net.mca.server.world.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VillageTickSchedulerTest {
+    private static int countByTicking(long period, long phase, long from, long to) {
+        int count = 0;
+        for (long t = from; t < to; t++) {
+            if (Math.floorMod(t + phase, period) == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void emptyRange() {
+        assertEquals(0, VillageTickScheduler.countDue(100, 0, 500, 500));
+        assertEquals(0, VillageTickScheduler.countDue(100, 0, 600, 500));
+    }
+
+    @Test
+    void fromOnDueTick() {
+        //due at 300, 400, 500, ...
+        assertEquals(1, VillageTickScheduler.countDue(100, 0, 300, 301));
+        assertEquals(2, VillageTickScheduler.countDue(100, 0, 300, 500));
+        assertEquals(3, VillageTickScheduler.countDue(100, 0, 300, 501));
+        assertEquals(0, VillageTickScheduler.countDue(100, 0, 301, 400));
+    }
+
+    @Test
+    void periodOfOne() {
+        assertEquals(0, VillageTickScheduler.countDue(1, 0, 7, 7));
+        assertEquals(1, VillageTickScheduler.countDue(1, 0, 7, 8));
+        assertEquals(93, VillageTickScheduler.countDue(1, 12345, 7, 100));
+    }
+
+    @Test
+    void largePhase() {
+        long phase = 0x7FFFFFFFL;
+        long from = 24_000_000_000L;
+        //due whenever (t + phase) is a multiple of 24000
+        long due = from + Math.floorMod(-(from + phase), 24000);
+        assertEquals(0, VillageTickScheduler.countDue(24000, phase, from, due));
+        assertEquals(1, VillageTickScheduler.countDue(24000, phase, from, due + 1));
+        assertEquals(1, VillageTickScheduler.countDue(24000, phase, due, due + 24000));
+        assertEquals(10, VillageTickScheduler.countDue(24000, phase, due, due + 240000));
+    }
+
+    @Test
+    void matchesTicking() {
+        long[] periods = {1, 2, 3, 7, 1200, 6000};
+        long[] phases = {0, 1, 599, 0x7FFFFFFFL};
+        for (long period : periods) {
+            for (long phase : phases) {
+                for (long from = 0; from < 50; from += 7) {
+                    for (long to = from; to < from + 2 * period + 5; to += Math.max(1, period / 5)) {
+                        assertEquals(countByTicking(period, phase, from, to), VillageTickScheduler.countDue(period, phase, from, to),
+                                "period " + period + ", phase " + phase + ", [" + from + ", " + to + ")");
+                    }
+                }
+            }
+        }
+    }
+}
@@ -20,7 +20,7 @@ public class NetworkHandlerImpl extends NetworkHandler.Impl {
         Identifier id = new Identifier(MCA.MOD_ID, msg.getName().toLowerCase(Locale.ENGLISH));
 
         ServerPlayNetworking.registerGlobalReceiver(id, (server, player, handler, buffer, responder) -> {
-            Message m = Message.decode(buffer);
+            Message m = NetworkHandler.decode(msg, buffer);
             server.execute(() -> m.receive(player));
         });
 
@@ -49,7 +49,7 @@ public class NetworkHandlerImpl extends NetworkHandler.Impl {
         private ClientProxy() {throw new RuntimeException("new ClientProxy()");}
         public static <T extends Message> void register(Identifier id, Class<T> msg) {
             ClientPlayNetworking.registerGlobalReceiver(id, (client, ignore1, buffer, ignore2) -> {
-                Message m = Message.decode(buffer);
+                Message m = NetworkHandler.decode(msg, buffer);
                 client.execute(m::receive);
             });
         }
@@ -19,12 +19,11 @@ public class NetworkHandlerImpl extends NetworkHandler.Impl {
     );
     private int id = 0;
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T extends Message> void registerMessage(Class<T> msg) {
         channel.registerMessage(id++, msg,
                 Message::encode,
-                b -> (T) Message.decode(b),
+                b -> NetworkHandler.decode(msg, b),
                 (m, ctx) -> {
                     ctx.get().enqueueWork(() -> {
                         ServerPlayerEntity sender = ctx.get().getSender();